@@ -0,0 +1,78 @@
+package in.harshitkumar.centsaiapi.dto;
+
+import in.harshitkumar.centsaiapi.utils.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a {@link UserTransactions} response of {@code rows} expenses, both into a
+ * byte array and streamed to a discarding output stream as the message converter writes it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserTransactionsSerializationBenchmark {
+
+    private static final String[] CATEGORIES = {"Food", "Travel", "Groceries", "Rent", "Entertainment", "Health"};
+
+    @Param({"10", "1000", "100000"})
+    public int rows;
+
+    private ObjectWriter writer;
+    private UserTransactions transactions;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = JsonMapper.builder().build();
+        writer = objectMapper.writerFor(UserTransactions.class);
+
+        SplittableRandom random = new SplittableRandom(10);
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        List<ExpenseDto> expenses = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            expenses.add(ExpenseDto.builder()
+                    .id((long) rows - i)
+                    .amount(Money.fromMinorUnits(random.nextLong(100, 500_000)))
+                    .transactionDate(start.plusDays(random.nextInt(365)))
+                    .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                    .build());
+        }
+        transactions = UserTransactions.builder()
+                .userId(42L)
+                .allExpenses(expenses)
+                .nextCursor("eyJkIjoiMjAyNS0wMS0wMSIsImkiOjF9")
+                .build();
+    }
+
+    @Benchmark
+    public byte[] toBytes() {
+        return writer.writeValueAsBytes(transactions);
+    }
+
+    @Benchmark
+    public void toStream() {
+        writer.writeValue(OutputStream.nullOutputStream(), transactions);
+    }
+}
@@ -0,0 +1,178 @@
+package in.harshitkumar.centsaiapi.repository;
+
+import in.harshitkumar.centsaiapi.CentsaiapiApplication;
+import in.harshitkumar.centsaiapi.models.Expenses;
+import in.harshitkumar.centsaiapi.models.User;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Saving {@code rows} new expenses in one transaction, against an embedded Postgres with the application's
+ * migrations and JPA settings, before and after user-012. {@code before} persists {@link IdentityExpense},
+ * a copy of the entity that still uses IDENTITY ids, so Hibernate inserts row by row and reads each id
+ * back; {@code after} is {@code ExpenseRepository.saveAll} with pooled sequence ids and JDBC batches of
+ * {@code hibernate.jdbc.batch_size}. Scores are per save, not per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ExpenseInsertBenchmark {
+
+    @Param({"1", "10", "100", "10000"})
+    public int rows;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private ExpenseRepository expenseRepository;
+    private EntityManager entityManager;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private User user;
+    private final SplittableRandom random = new SplittableRandom(12);
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        // Passed as command-line arguments, which take precedence over application.properties
+        String[] properties = {
+                "spring.application.name=centsaiapi-insert-benchmark",
+                "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "spring.datasource.username=postgres",
+                "spring.datasource.password=postgres",
+                "spring.jpa.show-sql=false",
+                // Creates benchmark_identity_expenses, which no migration has
+                "spring.jpa.hibernate.ddl-auto=update",
+                "jwt.secret=benchmark-secret-benchmark-secret-benchmark-secret",
+                "jwt.expiration-in-ms=3600000",
+                "fastapi.url=http://localhost:1",
+                "frontend.url=http://localhost:1",
+                "server.port=0",
+                "management.server.port=0",
+                "rollups.verify.cron=-"};
+        context = new SpringApplicationBuilder(CentsaiapiApplication.class)
+                .run(Stream.of(properties).map(property -> "--" + property).toArray(String[]::new));
+
+        expenseRepository = context.getBean(ExpenseRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        user = context.getBean(UserRepository.class).save(User.builder()
+                .username("benchmark")
+                .email("benchmark@example.com")
+                .password("x")
+                .build());
+    }
+
+    @TearDown(Level.Iteration)
+    public void clear() {
+        jdbcTemplate.update("delete from expenses");
+        jdbcTemplate.update("delete from benchmark_identity_expenses");
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public List<IdentityExpense> before() {
+        List<IdentityExpense> batch = new ArrayList<>(rows);
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new IdentityExpense(random.nextLong(100, 500_000), start.plusDays(random.nextInt(365)), user));
+        }
+        return transactionTemplate.execute(status -> {
+            batch.forEach(entityManager::persist);
+            return batch;
+        });
+    }
+
+    @Benchmark
+    public List<Expenses> after() {
+        List<Expenses> batch = new ArrayList<>(rows);
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < rows; i++) {
+            batch.add(Expenses.builder()
+                    .amount(random.nextLong(100, 500_000))
+                    .date(start.plusDays(random.nextInt(365)))
+                    .user(user)
+                    .build());
+        }
+        return transactionTemplate.execute(status -> expenseRepository.saveAll(batch));
+    }
+
+    /**
+     * {@link Expenses} as it was mapped before user-012. Only the benchmark classpath has it, and the
+     * benchmark's {@code ddl-auto=update} creates its table.
+     */
+    @Entity
+    @Table(name = "benchmark_identity_expenses")
+    public static class IdentityExpense {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        @Column(name = "amount_minor")
+        private Long amount;
+
+        @Column(name = "category_id")
+        private Integer categoryId;
+
+        @Column
+        private LocalDate date;
+
+        @ManyToOne(fetch = FetchType.LAZY)
+        @JoinColumn(name = "user_id")
+        private User user;
+
+        protected IdentityExpense() {
+        }
+
+        IdentityExpense(Long amount, LocalDate date, User user) {
+            this.amount = amount;
+            this.date = date;
+            this.user = user;
+        }
+    }
+}
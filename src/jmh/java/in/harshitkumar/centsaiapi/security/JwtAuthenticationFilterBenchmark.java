@@ -0,0 +1,118 @@
+package in.harshitkumar.centsaiapi.security;
+
+import in.harshitkumar.centsaiapi.models.User;
+import in.harshitkumar.centsaiapi.repository.RevokedTokenRepository;
+import in.harshitkumar.centsaiapi.repository.UserRepository;
+import in.harshitkumar.centsaiapi.utils.JwtUtil;
+import in.harshitkumar.centsaiapi.utils.JwtUtilBenchmark;
+import in.harshitkumar.centsaiapi.utils.LegacyJwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * One authenticated request through {@link JwtAuthenticationFilter} with a mocked {@link UserRepository}.
+ * {@code cachedFilter} is the filter as configured (token and principal already cached, as for any client
+ * after its first request, plus the revocation Bloom filter check); {@code verifyEveryRequest} replays the
+ * pre-cache path, which parsed the token twice with {@link LegacyJwtUtil} and loaded the user on every
+ * request. The security context is cleared per call, as it is between real requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final Long USER_ID = 42L;
+
+    private JwtUtil jwtUtil;
+    private LegacyJwtUtil legacyJwtUtil;
+    private UserRepository userRepository;
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @Setup
+    public void setUp() throws ServletException, IOException {
+        jwtUtil = JwtUtilBenchmark.newJwtUtil();
+        legacyJwtUtil = new LegacyJwtUtil(JwtUtilBenchmark.SECRET);
+        User user = User.builder().id(USER_ID).username("benchmark").email("benchmark@example.com").password("x").build();
+        token = jwtUtil.generateJwtToken(user);
+
+        userRepository = mock(UserRepository.class);
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+
+        RevokedTokenRepository revokedTokenRepository = mock(RevokedTokenRepository.class);
+        when(revokedTokenRepository.findUnexpiredJtis(any())).thenReturn(List.of());
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TokenRevocationList tokenRevocationList = new TokenRevocationList(revokedTokenRepository, meterRegistry, 100_000, 0.01);
+        tokenRevocationList.rebuild();
+        filter = new JwtAuthenticationFilter(
+                new VerifiedTokenCache(jwtUtil, meterRegistry, 10_000),
+                new UserPrincipalCache(userRepository, meterRegistry, 10_000, Duration.ofMinutes(10)),
+                tokenRevocationList,
+                meterRegistry);
+        cachedFilter();
+    }
+
+    @Benchmark
+    public Authentication cachedFilter() throws ServletException, IOException {
+        SecurityContextHolder.clearContext();
+        filter.doFilter(authorizedRequest(), new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public Authentication verifyEveryRequest() {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = authorizedRequest();
+        String bearer = request.getHeader("Authorization").substring(7);
+
+        Long userId = legacyJwtUtil.getUserIdFromJwtToken(bearer);
+        if (!legacyJwtUtil.validateJwtToken(bearer) || userRepository.findById(userId).isEmpty()) {
+            return null;
+        }
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(userId, bearer, Collections.emptyList());
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        return authentication;
+    }
+
+    private MockHttpServletRequest authorizedRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/transactions");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
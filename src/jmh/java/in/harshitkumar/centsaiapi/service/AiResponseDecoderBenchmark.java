@@ -0,0 +1,90 @@
+package in.harshitkumar.centsaiapi.service;
+
+import in.harshitkumar.centsaiapi.dto.ExpenseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding FastAPI extraction results of {@code expenses} items. {@code objectToAiResponse} replays the
+ * conversion {@link AiResponseDecoder} replaced (user-009): the body as a {@code String}, parsed by a
+ * freshly created {@link ObjectMapper} on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AiResponseDecoderBenchmark {
+
+    private static final String[] CATEGORIES = {"Food", "Travel", "Groceries", "Rent", "Entertainment", "Health"};
+
+    @Param({"1", "10", "100"})
+    public int expenses;
+
+    private AiResponseDecoder decoder;
+    private byte[] arrayBody;
+    private byte[] stringBody;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = JsonMapper.builder().build();
+        decoder = new AiResponseDecoder(objectMapper);
+
+        String json = payload(new SplittableRandom(9), expenses);
+        arrayBody = json.getBytes(StandardCharsets.UTF_8);
+        stringBody = objectMapper.writeValueAsBytes(json);
+    }
+
+    @Benchmark
+    public List<ExpenseDto> decodeArray() {
+        return decoder.decode(arrayBody);
+    }
+
+    @Benchmark
+    public List<ExpenseDto> decodeStringEncoded() {
+        return decoder.decode(stringBody);
+    }
+
+    @Benchmark
+    public List<ExpenseDto> objectToAiResponse() {
+        Object obj = new String(arrayBody, StandardCharsets.UTF_8);
+        ObjectMapper mapper = new ObjectMapper();
+        return mapper.readValue(obj.toString(), new TypeReference<List<ExpenseDto>>() {
+        });
+    }
+
+    // Shaped like the FastAPI output: one object per expense mentioned in the prompt
+    private static String payload(SplittableRandom random, int count) {
+        StringBuilder json = new StringBuilder("[");
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(", ");
+            }
+            json.append("{\"amount\": ").append(random.nextInt(1, 5_000)).append('.').append(random.nextInt(10, 100))
+                    .append(", \"transactionDate\": \"").append(start.plusDays(random.nextInt(365)))
+                    .append("\", \"category\": \"").append(CATEGORIES[random.nextInt(CATEGORIES.length)].toLowerCase())
+                    .append("\"}");
+        }
+        return json.append(']').toString();
+    }
+}
@@ -0,0 +1,127 @@
+package in.harshitkumar.centsaiapi.service;
+
+import in.harshitkumar.centsaiapi.dto.TransactionFilter;
+import in.harshitkumar.centsaiapi.dto.UserTransactions;
+import in.harshitkumar.centsaiapi.models.Category;
+import in.harshitkumar.centsaiapi.models.Expenses;
+import in.harshitkumar.centsaiapi.repository.CategoryRepository;
+import in.harshitkumar.centsaiapi.repository.ExpenseRepository;
+import in.harshitkumar.centsaiapi.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * One page of {@link TransactionService#retrieveTransactions} with the repositories mocked, so only the
+ * in-process work is measured: building the query specification, mapping entities to {@code ExpenseDto}s
+ * and encoding the next cursor ({@code fromEntities}), or paging a cached {@link UserLedger} and mapping
+ * its rows ({@code fromLedger}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionListingBenchmark {
+
+    private static final Long USER_ID = 42L;
+    private static final int LEDGER_ROWS = 10_000;
+    private static final List<String> CATEGORIES = List.of("Food", "Travel", "Groceries", "Rent", "Entertainment", "Health");
+
+    @Param({"50", "200"})
+    public int pageSize;
+
+    private TransactionService fromEntities;
+    private TransactionService fromLedger;
+    private TransactionFilter filter;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(20);
+        LocalDate start = LocalDate.of(2025, 1, 1);
+
+        List<Expenses> page = new ArrayList<>(pageSize + 1);
+        for (int i = 0; i <= pageSize; i++) {
+            page.add(Expenses.builder()
+                    .id(10_000L - i)
+                    .amount(random.nextLong(100, 500_000))
+                    .categoryId(random.nextInt(1, CATEGORIES.size() + 1))
+                    .date(start.plusDays(random.nextInt(365)))
+                    .build());
+        }
+        page.sort(Comparator.comparing(Expenses::getDate).reversed());
+
+        UserLedger.Builder ledger = UserLedger.builder(LEDGER_ROWS);
+        for (int i = 0; i < LEDGER_ROWS; i++) {
+            ledger.add((long) i + 1, start.plusDays(random.nextInt(365)), random.nextLong(100, 500_000),
+                    random.nextInt(1, CATEGORIES.size() + 1));
+        }
+
+        CategoryRepository categoryRepository = mock(CategoryRepository.class);
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < CATEGORIES.size(); i++) {
+            categories.add(new Category(i + 1, CATEGORIES.get(i)));
+        }
+        when(categoryRepository.findAll()).thenReturn(categories);
+        CategoryDictionary categoryDictionary = new CategoryDictionary(categoryRepository, mock(PlatformTransactionManager.class));
+        categoryDictionary.load();
+
+        ExpenseRepository expenseRepository = mock(ExpenseRepository.class);
+        doReturn(page).when(expenseRepository).findBy(any(), any());
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+
+        LedgerCache emptyCache = mock(LedgerCache.class);
+        LedgerCache warmCache = mock(LedgerCache.class);
+        when(warmCache.get(USER_ID)).thenReturn(ledger.build());
+
+        fromEntities = newService(expenseRepository, userRepository, categoryDictionary, emptyCache);
+        fromLedger = newService(expenseRepository, userRepository, categoryDictionary, warmCache);
+        filter = TransactionFilter.builder().build();
+    }
+
+    @Benchmark
+    public UserTransactions fromEntities() {
+        return fromEntities.retrieveTransactions(USER_ID, filter, null, pageSize);
+    }
+
+    @Benchmark
+    public UserTransactions fromLedger() {
+        return fromLedger.retrieveTransactions(USER_ID, filter, null, pageSize);
+    }
+
+    private TransactionService newService(ExpenseRepository expenseRepository, UserRepository userRepository,
+                                          CategoryDictionary categoryDictionary, LedgerCache ledgerCache) {
+        TransactionService service = new TransactionService(expenseRepository, userRepository,
+                mock(MonthlyRollupService.class), categoryDictionary, ledgerCache, mock(UserDataVersions.class),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "defaultPageSize", 50);
+        ReflectionTestUtils.setField(service, "maxPageSize", 200);
+        return service;
+    }
+}
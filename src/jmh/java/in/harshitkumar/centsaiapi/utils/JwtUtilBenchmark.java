@@ -0,0 +1,75 @@
+package in.harshitkumar.centsaiapi.utils;
+
+import in.harshitkumar.centsaiapi.models.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signing and verifying tokens with {@link JwtUtil}, one HS256 operation per call.
+ * {@code verifyTwice} is what the authentication filter paid per request before user-005:
+ * {@code getUserIdFromJwtToken} followed by {@code validateJwtToken} on {@link LegacyJwtUtil}, each
+ * building its own key and parser and logging at INFO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    public static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private JwtUtil jwtUtil;
+    private LegacyJwtUtil legacyJwtUtil;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = newJwtUtil();
+        legacyJwtUtil = new LegacyJwtUtil(SECRET);
+        user = User.builder().id(42L).username("benchmark").email("benchmark@example.com").password("x").build();
+        token = jwtUtil.generateJwtToken(user);
+    }
+
+    @Benchmark
+    public String generateJwtToken() {
+        return jwtUtil.generateJwtToken(user);
+    }
+
+    @Benchmark
+    public boolean validateJwtToken() {
+        return jwtUtil.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public Long getUserIdFromJwtToken() {
+        return jwtUtil.getUserIdFromJwtToken(token);
+    }
+
+    @Benchmark
+    public Long verifyTwice() {
+        Long userId = legacyJwtUtil.getUserIdFromJwtToken(token);
+        return legacyJwtUtil.validateJwtToken(token) ? userId : null;
+    }
+
+    public static JwtUtil newJwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationInMs", TimeUnit.HOURS.toMillis(1));
+        jwtUtil.init();
+        return jwtUtil;
+    }
+}
@@ -0,0 +1,59 @@
+package in.harshitkumar.centsaiapi.utils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.Key;
+import java.util.Date;
+
+/**
+ * The token verification of {@link JwtUtil} before user-005, kept as the baseline for the JWT benchmarks:
+ * a new signing key and parser per call, and an INFO log line per call. Not a Spring bean, so the
+ * benchmarks that start the application do not pick it up.
+ */
+public class LegacyJwtUtil {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacyJwtUtil.class);
+
+    private final String jwtSecret;
+
+    public LegacyJwtUtil(String jwtSecret) {
+        this.jwtSecret = jwtSecret;
+    }
+
+    private Key getSigningKey() {
+        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    }
+
+    public Long getUserIdFromJwtToken(String token) {
+        log.info("JwtUtil: Extracting userId from JWT token");
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(getSigningKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+
+        return Long.parseLong(claims.getSubject());
+    }
+
+    public boolean validateJwtToken(String token) {
+        log.info("JwtUtil: Validating JWT token");
+        try {
+            Claims claims = Jwts.parserBuilder()
+                    .setSigningKey(getSigningKey())
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+
+            return claims.getExpiration().after(new Date());
+
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error("JwtUtil: Invalid JWT token: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -2,8 +2,10 @@ package in.harshitkumar.centsaiapi;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class CentsaiapiApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,87 @@
+package in.harshitkumar.centsaiapi.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker and concurrency bulkhead for calls to the FastAPI microservice. While the circuit
+ * is open, AI calls fail immediately instead of waiting out the retry and timeout of a service that
+ * is already down.
+ */
+@Configuration
+@Slf4j
+public class AiResilienceConfig {
+
+    private static final String FASTAPI = "fastapi";
+
+    @Bean
+    public CircuitBreaker aiCircuitBreaker(MeterRegistry meterRegistry,
+                                           @Value("${ai.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+                                           @Value("${ai.circuit-breaker.minimum-calls:10}") int minimumCalls,
+                                           @Value("${ai.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+                                           @Value("${ai.circuit-breaker.slow-call-rate-threshold:50}") float slowCallRateThreshold,
+                                           @Value("${ai.circuit-breaker.slow-call-duration:5s}") Duration slowCallDuration,
+                                           @Value("${ai.circuit-breaker.open-duration:30s}") Duration openDuration,
+                                           @Value("${ai.circuit-breaker.half-open-calls:3}") int halfOpenCalls) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .waitDurationInOpenState(openDuration)
+                .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+                // A full bulkhead says nothing about the health of the service
+                .ignoreExceptions(BulkheadFullException.class)
+                .build();
+
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+
+        CircuitBreaker circuitBreaker = registry.circuitBreaker(FASTAPI);
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            log.warn("AiResilienceConfig: FastAPI circuit breaker {}", event.getStateTransition());
+            Counter.builder("ai.circuitbreaker.transitions")
+                    .tag("from", event.getStateTransition().getFromState().name())
+                    .tag("to", event.getStateTransition().getToState().name())
+                    .register(meterRegistry)
+                    .increment();
+        });
+        return circuitBreaker;
+    }
+
+    @Bean
+    public Bulkhead aiBulkhead(MeterRegistry meterRegistry,
+                               @Value("${ai.bulkhead.max-concurrent-calls:20}") int maxConcurrentCalls) {
+        BulkheadConfig config = BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+
+        BulkheadRegistry registry = BulkheadRegistry.of(config);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+
+        Bulkhead bulkhead = registry.bulkhead(FASTAPI);
+        Counter rejected = Counter.builder("ai.bulkhead.rejected")
+                .description("AI calls rejected because the maximum number of in-flight FastAPI calls was reached")
+                .register(meterRegistry);
+        bulkhead.getEventPublisher().onCallRejected(event -> rejected.increment());
+        return bulkhead;
+    }
+}
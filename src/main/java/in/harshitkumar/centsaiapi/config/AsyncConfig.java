@@ -0,0 +1,71 @@
+package in.harshitkumar.centsaiapi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    @Value("${ai.persistence.pool-size:4}")
+    private int poolSize;
+
+    @Value("${ai.persistence.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${auth.hashing.threads:0}")
+    private int hashingThreads;
+
+    @Value("${auth.hashing.queue-capacity:16}")
+    private int hashingQueueCapacity;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * Runs the database work that follows an AI response, so neither servlet threads nor the
+     * WebClient event loop are blocked by JDBC. With virtual threads each task gets its own thread, and
+     * the same number of tasks as the pool and queue together may be in flight; JDBC concurrency is
+     * bounded by the {@link GatedDataSource} either way.
+     */
+    @Bean
+    public AsyncTaskExecutor aiPersistenceExecutor() {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("ai-persist-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(poolSize + queueCapacity);
+            // Reject like the bounded pool does instead of blocking the WebClient thread that submits
+            executor.setRejectTasksWhenLimitReached(true);
+            executor.setTaskTerminationTimeout(30_000);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("ai-persist-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Runs BCrypt hashing and verification. The work is CPU-bound, so the pool stays on platform threads
+     * (one per core by default) even in virtual-thread mode, and its short queue rejects the rest.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashingExecutor() {
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(hashingQueueCapacity);
+        executor.setThreadNamePrefix("bcrypt-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
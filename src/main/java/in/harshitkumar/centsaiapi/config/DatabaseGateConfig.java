@@ -0,0 +1,44 @@
+package in.harshitkumar.centsaiapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wraps the Hikari pool in a {@link GatedDataSource} with one permit per pooled connection, waiting no
+ * longer than Hikari's own {@code connection-timeout}. Disabled with {@code db.gate.enabled=false}.
+ */
+@Configuration
+@Slf4j
+public class DatabaseGateConfig {
+
+    @Bean
+    static BeanPostProcessor databaseGate(@Value("${db.gate.enabled:true}") boolean enabled) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!enabled || !(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                log.info("DatabaseGateConfig: Gating {} at {} concurrent connections", beanName, hikari.getMaximumPoolSize());
+                return new GatedDataSource(hikari, hikari.getMaximumPoolSize(), Duration.ofMillis(hikari.getConnectionTimeout()));
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder databaseGateMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof GatedDataSource gated) {
+                gated.bindTo(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,128 @@
+package in.harshitkumar.centsaiapi.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lets at most {@code permits} callers hold a connection at once, in arrival order, and makes the rest
+ * wait on a fair {@link Semaphore} for up to {@code timeout}. With virtual threads there is no request
+ * thread pool left to bound how many callers reach the connection pool; parking on the semaphore keeps
+ * them off the pool's handoff queue and releases their carrier threads. A permit is returned when the
+ * connection is closed.
+ */
+public class GatedDataSource extends DelegatingDataSource implements MeterBinder {
+
+    private final Semaphore permits;
+    private final int maxPermits;
+    private final Duration timeout;
+    private volatile Meter.MeterProvider<Timer> waitTimer;
+
+    public GatedDataSource(DataSource target, int permits, Duration timeout) {
+        super(target);
+        this.permits = new Semaphore(permits, true);
+        this.maxPermits = permits;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("db.gate.waiting", permits, Semaphore::getQueueLength)
+                .description("Threads waiting for a database connection permit")
+                .register(registry);
+        Gauge.builder("db.gate.in.use", permits, gate -> maxPermits - gate.availablePermits())
+                .description("Database connection permits held")
+                .register(registry);
+        this.waitTimer = Timer.builder("db.gate.wait")
+                .description("Time spent waiting for a database connection permit")
+                .withRegistry(registry);
+    }
+
+    private void acquire() throws SQLException {
+        long started = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+        recordWait(System.nanoTime() - started, acquired);
+        if (!acquired) {
+            throw new SQLTransientConnectionException("No database connection available within " + timeout
+                    + " (" + maxPermits + " in use, " + permits.getQueueLength() + " waiting)");
+        }
+    }
+
+    private void recordWait(long nanos, boolean acquired) {
+        Meter.MeterProvider<Timer> timer = waitTimer;
+        if (timer != null) {
+            timer.withTag("outcome", acquired ? "acquired" : "timeout").record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Returns the permit on the first close(); every other call goes to the pooled connection
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "close" -> {
+                        try {
+                            yield invoke(connection, method, args);
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                    }
+                    default -> invoke(connection, method, args);
+                });
+    }
+
+    private static Object invoke(Connection connection, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -3,15 +3,36 @@ package in.harshitkumar.centsaiapi.controller;
 import in.harshitkumar.centsaiapi.dto.*;
 import in.harshitkumar.centsaiapi.service.AiService;
 import in.harshitkumar.centsaiapi.service.AuthService;
+import in.harshitkumar.centsaiapi.service.MonthlyRollupService;
+import in.harshitkumar.centsaiapi.service.SpendingSummaryService;
+import in.harshitkumar.centsaiapi.service.TransactionExportService;
+import in.harshitkumar.centsaiapi.service.TransactionImportService;
 import in.harshitkumar.centsaiapi.service.TransactionService;
+import in.harshitkumar.centsaiapi.service.UserDataVersions;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.core.Authentication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 @Slf4j
 @RestController
@@ -19,9 +40,17 @@ import org.springframework.web.bind.annotation.*;
 @Data
 @AllArgsConstructor
 public class UserController {
+    // Clients may keep read responses but must revalidate them with If-None-Match
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final AuthService authService;
     private final AiService aiService;
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
+    private final TransactionImportService transactionImportService;
+    private final SpendingSummaryService spendingSummaryService;
+    private final MonthlyRollupService monthlyRollupService;
+    private final UserDataVersions userDataVersions;
 
     @PostMapping("/register")
     public ResponseEntity<AuthResponse> registerUser(@Valid @RequestBody RegistrationRequest registrationRequest) {
@@ -37,19 +66,38 @@ public class UserController {
         return authService.login(request);
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logoutUser(Authentication authentication) {
+        log.info("User Controller: Logging out user");
+        return authService.logout(extractUserId(authentication), (String) authentication.getCredentials());
+    }
+
     @PostMapping("/ai/{userId}/transaction")
-    public ResponseEntity<AiResponse> addTransaction(@PathVariable Long userId,
-                                                     Authentication authentication,
-                                                     @RequestBody UserPrompt prompt) {
+    public CompletableFuture<ResponseEntity<AiResponse>> addTransaction(@PathVariable Long userId,
+                                                                        Authentication authentication,
+                                                                        @RequestBody UserPrompt prompt) {
         Long loggedInUserId = extractUserId(authentication);
         if (!loggedInUserId.equals(userId)) {
             log.error("UserController: User {} is not authorized to add transaction for userId {}", loggedInUserId, userId);
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
         }
         log.info("UserController: Adding transaction for userId {}", userId);
         return aiService.saveData(userId, prompt);
     }
 
+    @PostMapping("/ai/{userId}/transactions/batch")
+    public CompletableFuture<ResponseEntity<BatchAiResponse>> addTransactions(@PathVariable Long userId,
+                                                                              Authentication authentication,
+                                                                              @Valid @RequestBody BatchPromptRequest request) {
+        Long loggedInUserId = extractUserId(authentication);
+        if (!loggedInUserId.equals(userId)) {
+            log.error("UserController: User {} is not authorized to add transactions for userId {}", loggedInUserId, userId);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+        log.info("UserController: Adding batch of transactions for userId {}", userId);
+        return aiService.saveBatch(userId, request.getPrompts());
+    }
+
     @PostMapping("/{userId}/transaction")
     public ResponseEntity<TransactionResponse> addTransaction(@PathVariable Long userId,
                                                               Authentication authentication,
@@ -90,16 +138,166 @@ public class UserController {
         return transactionService.updateTransaction(userId, transactionId, transactionRequest);
     }
 
+    @PostMapping("/{userId}/transactions/bulk-delete")
+    public ResponseEntity<BulkOperationResponse> bulkDeleteTransactions(@PathVariable Long userId,
+                                                                        Authentication authentication,
+                                                                        @RequestBody BulkTransactionRequest request) {
+        Long loggedInUserId = extractUserId(authentication);
+        if (!loggedInUserId.equals(userId)) {
+            log.error("UserController: User {} is not authorized to delete transactions for userId {}", loggedInUserId, userId);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        log.info("UserController: Bulk deleting transactions for userId {}", userId);
+        return ResponseEntity.status(HttpStatus.OK).body(transactionService.bulkDelete(userId, request));
+    }
+
+    @PostMapping("/{userId}/transactions/bulk-recategorize")
+    public ResponseEntity<BulkOperationResponse> bulkRecategorizeTransactions(@PathVariable Long userId,
+                                                                              Authentication authentication,
+                                                                              @RequestBody BulkTransactionRequest request) {
+        Long loggedInUserId = extractUserId(authentication);
+        if (!loggedInUserId.equals(userId)) {
+            log.error("UserController: User {} is not authorized to update transactions for userId {}", loggedInUserId, userId);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        log.info("UserController: Bulk recategorizing transactions for userId {}", userId);
+        return ResponseEntity.status(HttpStatus.OK).body(transactionService.bulkRecategorize(userId, request));
+    }
+
     @GetMapping("/{userId}/transactions")
     public ResponseEntity<UserTransactions> getTransactions(@PathVariable Long userId,
-                                                            Authentication authentication) {
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer limit,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                            @RequestParam(required = false) Set<String> category,
+                                                            @RequestParam(required = false) BigDecimal minAmount,
+                                                            @RequestParam(required = false) BigDecimal maxAmount,
+                                                            @RequestParam(required = false) String sort,
+                                                            Authentication authentication,
+                                                            WebRequest webRequest) {
         Long loggedInUserId = extractUserId(authentication);
         if (!loggedInUserId.equals(userId)) {
             log.error("UserController: User {} is not authorized to retrieve transactions for userId {}", loggedInUserId, userId);
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
         log.info("UserController: Retrieving transactions for userId {}", userId);
-        return ResponseEntity.status(HttpStatus.OK).body(transactionService.retrieveTransactions(userId));
+        TransactionFilter filter = TransactionFilter.builder()
+                .from(from)
+                .to(to)
+                .categories(category)
+                .minAmount(minAmount)
+                .maxAmount(maxAmount)
+                .sort(TransactionSort.from(sort))
+                .build();
+        return versioned(userId, webRequest, () -> transactionService.retrieveTransactions(userId, filter, cursor, limit));
+    }
+
+    @GetMapping("/{userId}/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@PathVariable Long userId,
+                                                                    @RequestParam(defaultValue = "ndjson") String format,
+                                                                    Authentication authentication) {
+        Long loggedInUserId = extractUserId(authentication);
+        if (!loggedInUserId.equals(userId)) {
+            log.error("UserController: User {} is not authorized to export transactions for userId {}", loggedInUserId, userId);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        ExportFormat exportFormat = ExportFormat.from(format);
+        log.info("UserController: Exporting transactions for userId {}", userId);
+        StreamingResponseBody body = out -> transactionExportService.exportTransactions(userId, exportFormat, out);
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions-" + userId + "." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    @PostMapping(value = "/{userId}/transactions/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportSummary> importTransactions(@PathVariable Long userId,
+                                                            @RequestParam("file") MultipartFile file,
+                                                            Authentication authentication) throws IOException {
+        Long loggedInUserId = extractUserId(authentication);
+        if (!loggedInUserId.equals(userId)) {
+            log.error("UserController: User {} is not authorized to import transactions for userId {}", loggedInUserId, userId);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        log.info("UserController: Importing transactions for userId {}", userId);
+        try (InputStream csv = file.getInputStream()) {
+            return ResponseEntity.status(HttpStatus.OK).body(transactionImportService.importCsv(userId, csv));
+        }
+    }
+
+    @GetMapping("/{userId}/summary/categories")
+    public ResponseEntity<SpendingSummary<CategorySpending>> getCategorySummary(@PathVariable Long userId,
+                                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                                Authentication authentication,
+                                                                                WebRequest webRequest) {
+        Long loggedInUserId = extractUserId(authentication);
+        if (!loggedInUserId.equals(userId)) {
+            log.error("UserController: User {} is not authorized to retrieve summary for userId {}", loggedInUserId, userId);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        log.info("UserController: Retrieving category summary for userId {}", userId);
+        return versioned(userId, webRequest, () -> spendingSummaryService.summarizeByCategory(userId, from, to));
+    }
+
+    @GetMapping("/{userId}/summary/monthly")
+    public ResponseEntity<SpendingSummary<PeriodSpending>> getMonthlySummary(@PathVariable Long userId,
+                                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                             Authentication authentication,
+                                                                             WebRequest webRequest) {
+        Long loggedInUserId = extractUserId(authentication);
+        if (!loggedInUserId.equals(userId)) {
+            log.error("UserController: User {} is not authorized to retrieve summary for userId {}", loggedInUserId, userId);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        log.info("UserController: Retrieving monthly summary for userId {}", userId);
+        return versioned(userId, webRequest, () -> spendingSummaryService.summarizeByMonth(userId, from, to));
+    }
+
+    @GetMapping("/{userId}/summary/daily")
+    public ResponseEntity<SpendingSummary<PeriodSpending>> getDailySummary(@PathVariable Long userId,
+                                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                           Authentication authentication,
+                                                                           WebRequest webRequest) {
+        Long loggedInUserId = extractUserId(authentication);
+        if (!loggedInUserId.equals(userId)) {
+            log.error("UserController: User {} is not authorized to retrieve summary for userId {}", loggedInUserId, userId);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        log.info("UserController: Retrieving daily summary for userId {}", userId);
+        return versioned(userId, webRequest, () -> spendingSummaryService.summarizeByDay(userId, from, to));
+    }
+
+    @GetMapping("/{userId}/summary/rollup")
+    public ResponseEntity<SpendingSummary<RollupSpending>> getRollupSummary(@PathVariable Long userId,
+                                                                            @RequestParam(required = false) YearMonth from,
+                                                                            @RequestParam(required = false) YearMonth to,
+                                                                            Authentication authentication,
+                                                                            WebRequest webRequest) {
+        Long loggedInUserId = extractUserId(authentication);
+        if (!loggedInUserId.equals(userId)) {
+            log.error("UserController: User {} is not authorized to retrieve summary for userId {}", loggedInUserId, userId);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        log.info("UserController: Retrieving monthly rollup summary for userId {}", userId);
+        return versioned(userId, webRequest, () -> monthlyRollupService.summarizeByMonthAndCategory(userId, from, to));
+    }
+
+    /**
+     * Conditional GET on the user's data version. A request whose If-None-Match carries the current version
+     * is answered with 304 without calling {@code body}; the version is read before the body is built.
+     */
+    private <T> ResponseEntity<T> versioned(Long userId, WebRequest webRequest, Supplier<T> body) {
+        String etag = userDataVersions.etag(userId);
+        if (webRequest.checkNotModified(etag)) {
+            log.info("UserController: Data for userId {} not modified", userId);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.status(HttpStatus.OK).eTag(etag).cacheControl(REVALIDATE).body(body.get());
     }
 
     private Long extractUserId(Authentication authentication) {
@@ -0,0 +1,19 @@
+package in.harshitkumar.centsaiapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAiResponse {
+    private Long userId;
+    private int saved;
+    private int failed;
+    private List<PromptResult> results;
+}
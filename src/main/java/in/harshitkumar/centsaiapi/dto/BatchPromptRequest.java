@@ -0,0 +1,18 @@
+package in.harshitkumar.centsaiapi.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPromptRequest {
+    @NotEmpty(message = "At least one prompt is required")
+    private List<UserPrompt> prompts;
+}
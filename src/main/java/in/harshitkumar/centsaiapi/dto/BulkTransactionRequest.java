@@ -0,0 +1,21 @@
+package in.harshitkumar.centsaiapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTransactionRequest {
+    private List<Long> ids;
+    private LocalDate from;
+    private LocalDate to;
+    private String category;
+    private String newCategory;
+}
@@ -0,0 +1,25 @@
+package in.harshitkumar.centsaiapi.dto;
+
+import in.harshitkumar.centsaiapi.utils.Money;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorySpending {
+    private Integer categoryId;
+    private String category;
+    private BigDecimal total;
+    private Long count;
+
+    // Used by the GROUP BY projection (total in minor units); the name is filled in from the category dictionary
+    public CategorySpending(Integer categoryId, Long total, Long count) {
+        this(categoryId, null, Money.fromMinorUnits(total), count);
+    }
+}
@@ -1,10 +1,13 @@
 package in.harshitkumar.centsaiapi.dto;
 
+import in.harshitkumar.centsaiapi.models.Expenses;
+import in.harshitkumar.centsaiapi.utils.Money;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Data
@@ -13,7 +16,16 @@ import java.time.LocalDate;
 @NoArgsConstructor
 public class ExpenseDto {
     private Long id;
-    private Double amount;
+    private BigDecimal amount;
     private LocalDate transactionDate;
     private String category;
+
+    public static ExpenseDto fromEntity(Expenses expense, String category) {
+        return ExpenseDto.builder()
+                .id(expense.getId())
+                .amount(Money.fromMinorUnits(expense.getAmount()))
+                .transactionDate(expense.getDate())
+                .category(category)
+                .build();
+    }
 }
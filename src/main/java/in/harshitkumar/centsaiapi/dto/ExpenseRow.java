@@ -0,0 +1,13 @@
+package in.harshitkumar.centsaiapi.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Scalar projection of an expense row, without the user association. {@code amount} is in minor units.
+ */
+public interface ExpenseRow {
+    Long getId();
+    LocalDate getDate();
+    Long getAmount();
+    Integer getCategoryId();
+}
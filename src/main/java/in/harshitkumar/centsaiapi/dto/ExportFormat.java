@@ -0,0 +1,25 @@
+package in.harshitkumar.centsaiapi.dto;
+
+import in.harshitkumar.centsaiapi.exception.InvalidRequestParameter;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+@Getter
+@AllArgsConstructor
+public enum ExportFormat {
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    public static ExportFormat from(String format) {
+        for (ExportFormat exportFormat : values()) {
+            if (exportFormat.extension.equalsIgnoreCase(format)) {
+                return exportFormat;
+            }
+        }
+        throw new InvalidRequestParameter("Unsupported export format: " + format);
+    }
+}
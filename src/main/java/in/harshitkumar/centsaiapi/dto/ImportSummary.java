@@ -0,0 +1,21 @@
+package in.harshitkumar.centsaiapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportSummary {
+    private Long userId;
+    private long rowsRead;
+    private long imported;
+    private long rejected;
+    private List<RejectedLine> rejectedLines;
+    private boolean rejectedLinesTruncated;
+}
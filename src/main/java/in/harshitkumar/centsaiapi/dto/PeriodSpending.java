@@ -0,0 +1,30 @@
+package in.harshitkumar.centsaiapi.dto;
+
+import in.harshitkumar.centsaiapi.utils.Money;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PeriodSpending {
+    private LocalDate period;
+    private BigDecimal total;
+    private Long count;
+
+    // Used by the daily GROUP BY projection (total in minor units)
+    public PeriodSpending(LocalDate period, Long total, Long count) {
+        this(period, Money.fromMinorUnits(total), count);
+    }
+
+    // Used by the monthly GROUP BY projection, which groups on year(date) and month(date)
+    public PeriodSpending(Integer year, Integer month, Long total, Long count) {
+        this(LocalDate.of(year, month, 1), total, count);
+    }
+}
@@ -0,0 +1,23 @@
+package in.harshitkumar.centsaiapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PromptResult {
+    public static final String SAVED = "SAVED";
+    public static final String NO_EXPENSES = "NO_EXPENSES";
+    public static final String FAILED = "FAILED";
+
+    private int index;
+    private String status;
+    private List<ExpenseDto> expenses;
+    private String error;
+}
@@ -0,0 +1,16 @@
+package in.harshitkumar.centsaiapi.dto;
+
+/**
+ * Signed change to one monthly rollup bucket, reported by the set-based expense DML statements (and,
+ * unsigned, by the rollup recomputation). {@code yearMonth} is {@code null} for rows without a date;
+ * {@code categoryId} is {@link in.harshitkumar.centsaiapi.models.MonthlyRollup#NO_CATEGORY} for rows
+ * without a category. {@code total} is in minor units. {@code rowCount} counts the expense rows the
+ * statement touched and is only set on the side of the change that describes the old values.
+ */
+public interface RollupDelta {
+    Integer getYearMonth();
+    Integer getCategoryId();
+    Long getTotal();
+    Long getTxnCount();
+    Long getRowCount();
+}
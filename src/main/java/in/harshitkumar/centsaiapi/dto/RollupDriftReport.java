@@ -0,0 +1,23 @@
+package in.harshitkumar.centsaiapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupDriftReport {
+    private Long userId;
+    private int groupsChecked;
+    private List<String> drifts;
+    private boolean repaired;
+
+    public boolean hasDrift() {
+        return drifts != null && !drifts.isEmpty();
+    }
+}
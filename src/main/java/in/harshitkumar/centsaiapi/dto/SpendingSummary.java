@@ -0,0 +1,21 @@
+package in.harshitkumar.centsaiapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpendingSummary<T> {
+    private Long userId;
+    private String groupBy;
+    private LocalDate from;
+    private LocalDate to;
+    private List<T> totals;
+}
@@ -0,0 +1,24 @@
+package in.harshitkumar.centsaiapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionFilter {
+    private LocalDate from;
+    private LocalDate to;
+    private Set<String> categories;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+    @Builder.Default
+    private TransactionSort sort = TransactionSort.DATE_DESC;
+}
@@ -0,0 +1,42 @@
+package in.harshitkumar.centsaiapi.dto;
+
+import in.harshitkumar.centsaiapi.exception.InvalidRequestParameter;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Orderings supported by the transaction listing. Each is backed by a {@code (user_id, <key>, id)}
+ * index; {@code id} breaks ties so keyset cursors are unambiguous.
+ */
+@Getter
+@AllArgsConstructor
+public enum TransactionSort {
+    DATE_DESC("date", Sort.Direction.DESC),
+    DATE_ASC("date", Sort.Direction.ASC),
+    AMOUNT_DESC("amount", Sort.Direction.DESC),
+    AMOUNT_ASC("amount", Sort.Direction.ASC);
+
+    private final String property;
+    private final Sort.Direction direction;
+
+    public boolean isByAmount() {
+        return "amount".equals(property);
+    }
+
+    public Sort toSort() {
+        return Sort.by(direction, property, "id");
+    }
+
+    public static TransactionSort from(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return DATE_DESC;
+        }
+        for (TransactionSort transactionSort : values()) {
+            if (transactionSort.name().equalsIgnoreCase(sort)) {
+                return transactionSort;
+            }
+        }
+        throw new InvalidRequestParameter("Unsupported sort: " + sort);
+    }
+}
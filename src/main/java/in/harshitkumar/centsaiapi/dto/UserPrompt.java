@@ -1,10 +1,14 @@
 package in.harshitkumar.centsaiapi.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class UserPrompt {
     private String prompt;
 }
@@ -11,4 +11,5 @@ import java.util.List;
 public class UserTransactions {
     private Long userId;
     private List<ExpenseDto> allExpenses;
+    private String nextCursor;
 }
@@ -1,6 +1,8 @@
 package in.harshitkumar.centsaiapi.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -53,6 +55,27 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
     }
 
+    @ExceptionHandler(PasswordHashingUnavailable.class)
+    public ResponseEntity<Map<String, String>> handlePasswordHashingUnavailableError(PasswordHashingUnavailable e){
+        log.error("PasswordHashingUnavailable exception handler: Password hashing queue is full");
+        Map<String, String> response = new HashMap<>();
+        response.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
+    // A bounded executor (such as aiPersistenceExecutor) whose queue is full
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<Map<String, String>> handleTaskRejectedException(TaskRejectedException e){
+        log.error("TaskRejectedException exception handler: Executor queue is full: {}", e.getMessage());
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Server is busy, please retry shortly");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
     @ExceptionHandler(UserNotFound.class)
     public ResponseEntity<Map<String, String>> handleUserNotFoundError(UserNotFound e){
         log.error("UserNotFound exception handler: User not found");
@@ -77,6 +100,14 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
     }
 
+    @ExceptionHandler(InvalidRequestParameter.class)
+    public ResponseEntity<Map<String, String>> handleInvalidRequestParameterError(InvalidRequestParameter e){
+        log.error("InvalidRequestParameter exception handler: Invalid request parameter");
+        Map<String, String> response = new HashMap<>();
+        response.put("message", e.getMessage());
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleException(Exception ex){
         log.error("Generic Exception", ex);
@@ -0,0 +1,7 @@
+package in.harshitkumar.centsaiapi.exception;
+
+public class InvalidRequestParameter extends RuntimeException {
+    public InvalidRequestParameter(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package in.harshitkumar.centsaiapi.exception;
+
+public class PasswordHashingUnavailable extends RuntimeException {
+    public PasswordHashingUnavailable(String message) {
+        super(message);
+    }
+}
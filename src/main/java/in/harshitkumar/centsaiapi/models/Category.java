@@ -0,0 +1,26 @@
+package in.harshitkumar.centsaiapi.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Dictionary of canonical category names. Expenses and rollups store the integer id; names are resolved
+ * through {@link in.harshitkumar.centsaiapi.service.CategoryDictionary}.
+ */
+@Data
+@Entity
+@Table(name = "categories")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Category {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, unique = true)
+    private String name;
+}
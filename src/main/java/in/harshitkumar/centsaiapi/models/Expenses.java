@@ -8,21 +8,28 @@ import java.util.Date;
 
 @Data
 @Entity
-@Table(name = "expenses", indexes = {@Index(columnList = "user_id")})
+@Table(name = "expenses", indexes = {
+        @Index(name = "idx_expenses_user_date_id", columnList = "user_id, date, id"),
+        @Index(name = "idx_expenses_user_category_date_id", columnList = "user_id, category_id, date, id"),
+        @Index(name = "idx_expenses_user_amount_id", columnList = "user_id, amount_minor, id")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @ToString
 public class Expenses {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expenses_seq")
+    @SequenceGenerator(name = "expenses_seq", sequenceName = "expenses_seq", allocationSize = 50)
     private Long id;
 
-    @Column
-    private Double amount;
+    // Minor units (cents/paise)
+    @Column(name = "amount_minor")
+    private Long amount;
 
-    @Column
-    private String category;
+    // Id in the categories dictionary; null when the expense has no category
+    @Column(name = "category_id")
+    private Integer categoryId;
 
     @Column
     private LocalDate date;
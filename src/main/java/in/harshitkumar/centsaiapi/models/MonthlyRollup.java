@@ -0,0 +1,33 @@
+package in.harshitkumar.centsaiapi.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Materialized per-user, per-month, per-category totals of {@link Expenses}. Rows are maintained
+ * incrementally in the same transaction as every expense write, so monthly dashboards are served by
+ * a primary-key range lookup instead of scanning the user's history.
+ */
+@Data
+@Entity
+@Table(name = "monthly_rollups")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MonthlyRollup {
+    // Expenses without a category are rolled up under this key, since key columns cannot be null
+    public static final int NO_CATEGORY = 0;
+
+    @EmbeddedId
+    private MonthlyRollupId id;
+
+    // Minor units (cents/paise)
+    @Column(name = "total_minor", nullable = false)
+    private Long total;
+
+    @Column(name = "txn_count", nullable = false)
+    private Long txnCount;
+}
@@ -0,0 +1,25 @@
+package in.harshitkumar.centsaiapi.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyRollupId implements Serializable {
+    @Column(name = "user_id")
+    private Long userId;
+
+    // yyyyMM, e.g. 202512
+    @Column(name = "year_month")
+    private Integer yearMonth;
+
+    @Column(name = "category_id")
+    private Integer categoryId;
+}
@@ -0,0 +1,31 @@
+package in.harshitkumar.centsaiapi.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A token revoked before its expiry, identified by its {@code jti} claim. Kept until {@code expiresAt},
+ * after which the token is rejected as expired anyway.
+ */
+@Data
+@Entity
+@Table(name = "revoked_tokens")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedToken {
+    @Id
+    private UUID jti;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
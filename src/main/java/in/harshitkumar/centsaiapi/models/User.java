@@ -1,5 +1,6 @@
 package in.harshitkumar.centsaiapi.models;
 
+import in.harshitkumar.centsaiapi.security.UserCacheInvalidationListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -12,6 +13,7 @@ import lombok.NoArgsConstructor;
 import java.util.List;
 
 @Entity
+@EntityListeners(UserCacheInvalidationListener.class)
 @Table(name = "users",
         indexes = {@Index(columnList = "email")}
 )
@@ -21,7 +23,8 @@ import java.util.List;
 @AllArgsConstructor
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Username cannot be blank")
@@ -0,0 +1,21 @@
+package in.harshitkumar.centsaiapi.repository;
+
+import in.harshitkumar.centsaiapi.models.Category;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CategoryRepository extends JpaRepository<Category, Integer> {
+
+    Optional<Category> findByName(String name);
+
+    // Runs in the caller's transaction; a concurrent insert of the same name waits for that one to finish.
+    @Modifying
+    @Query(value = "insert into categories (name) values (:name) on conflict (name) do nothing", nativeQuery = true)
+    void insertIfAbsent(@Param("name") String name);
+}
@@ -1,9 +1,211 @@
 package in.harshitkumar.centsaiapi.repository;
 
+import in.harshitkumar.centsaiapi.dto.CategorySpending;
+import in.harshitkumar.centsaiapi.dto.ExpenseRow;
+import in.harshitkumar.centsaiapi.dto.PeriodSpending;
+import in.harshitkumar.centsaiapi.dto.RollupDelta;
 import in.harshitkumar.centsaiapi.models.Expenses;
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
-public interface ExpenseRepository extends JpaRepository<Expenses, Long> {
+public interface ExpenseRepository extends JpaRepository<Expenses, Long>, JpaSpecificationExecutor<Expenses> {
+
+    // Server-side cursor for exports: the driver only buffers one fetch of rows at a time.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select e from Expenses e where e.user.id = :userId order by e.date desc, e.id desc")
+    Stream<Expenses> streamAllByUserId(@Param("userId") Long userId);
+
+    // Loads the in-memory ledger: scalar columns only, so no entities enter the persistence context.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select e.id as id, e.date as date, e.amount as amount, e.categoryId as categoryId from Expenses e where e.user.id = :userId")
+    Stream<ExpenseRow> streamRowsByUserId(@Param("userId") Long userId);
+
+    long countByUserId(Long userId);
+
+    @Query("""
+            select new in.harshitkumar.centsaiapi.dto.CategorySpending(e.categoryId, sum(e.amount), count(e))
+            from Expenses e
+            where e.user.id = :userId and e.date between :from and :to
+            group by e.categoryId
+            order by sum(e.amount) desc
+            """)
+    List<CategorySpending> sumByCategory(@Param("userId") Long userId,
+                                         @Param("from") LocalDate from,
+                                         @Param("to") LocalDate to);
+
+    @Query("""
+            select new in.harshitkumar.centsaiapi.dto.PeriodSpending(year(e.date), month(e.date), sum(e.amount), count(e))
+            from Expenses e
+            where e.user.id = :userId and e.date between :from and :to
+            group by year(e.date), month(e.date)
+            order by year(e.date), month(e.date)
+            """)
+    List<PeriodSpending> sumByMonth(@Param("userId") Long userId,
+                                    @Param("from") LocalDate from,
+                                    @Param("to") LocalDate to);
+
+    @Query("""
+            select new in.harshitkumar.centsaiapi.dto.PeriodSpending(e.date, sum(e.amount), count(e))
+            from Expenses e
+            where e.user.id = :userId and e.date between :from and :to
+            group by e.date
+            order by e.date
+            """)
+    List<PeriodSpending> sumByDay(@Param("userId") Long userId,
+                                  @Param("from") LocalDate from,
+                                  @Param("to") LocalDate to);
+
+    @Query("""
+            select year(e.date) * 100 + month(e.date) as yearMonth,
+                   coalesce(e.categoryId, 0) as categoryId,
+                   sum(e.amount) as total,
+                   count(e) as txnCount,
+                   count(e) as rowCount
+            from Expenses e
+            where e.user.id = :userId and e.date is not null and e.amount is not null
+            group by year(e.date), month(e.date), coalesce(e.categoryId, 0)
+            """)
+    List<RollupDelta> sumByMonthAndCategory(@Param("userId") Long userId);
+
+    /*
+     * Set-based writes. Each is a single ownership-scoped statement (user_id is part of the WHERE clause)
+     * that also returns the rollup buckets it changed, grouped, so callers never load the rows.
+     * Totals are minor units; Postgres sums bigint into numeric, hence the casts back to bigint.
+     */
+
+    @Transactional
+    @Query(value = """
+            with deleted as (
+                delete from expenses
+                where user_id = :userId and id in (:ids)
+                returning date, category_id, amount_minor
+            )
+            select cast(extract(year from date) * 100 + extract(month from date) as integer) as "yearMonth",
+                   coalesce(category_id, 0) as "categoryId",
+                   -cast(sum(amount_minor) as bigint) as "total",
+                   -count(amount_minor) as "txnCount",
+                   count(*) as "rowCount"
+            from deleted
+            group by 1, 2
+            """, nativeQuery = true)
+    List<RollupDelta> deleteOwned(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Query(value = """
+            with deleted as (
+                delete from expenses
+                where user_id = :userId
+                  and (date between :from and :to or (:includeUndated and date is null))
+                  and (:anyCategory or category_id = :categoryId)
+                returning date, category_id, amount_minor
+            )
+            select cast(extract(year from date) * 100 + extract(month from date) as integer) as "yearMonth",
+                   coalesce(category_id, 0) as "categoryId",
+                   -cast(sum(amount_minor) as bigint) as "total",
+                   -count(amount_minor) as "txnCount",
+                   count(*) as "rowCount"
+            from deleted
+            group by 1, 2
+            """, nativeQuery = true)
+    List<RollupDelta> deleteOwnedMatching(@Param("userId") Long userId,
+                                          @Param("from") LocalDate from,
+                                          @Param("to") LocalDate to,
+                                          @Param("includeUndated") boolean includeUndated,
+                                          @Param("anyCategory") boolean anyCategory,
+                                          @Param("categoryId") Integer categoryId);
+
+    // "prev" snapshots the locked rows so the statement can report their values from before the update.
+    @Transactional
+    @Query(value = """
+            with prev as (
+                select id, date, category_id, amount_minor
+                from expenses
+                where user_id = :userId
+                  and (date between :from and :to or (:includeUndated and date is null))
+                  and (:anyCategory or category_id = :categoryId)
+                for update
+            ), updated as (
+                update expenses e
+                set category_id = :newCategoryId
+                from prev
+                where e.id = prev.id
+                returning prev.date as date, prev.category_id as category_id, prev.amount_minor as amount_minor
+            )
+            select cast(extract(year from date) * 100 + extract(month from date) as integer) as "yearMonth",
+                   coalesce(category_id, 0) as "categoryId",
+                   -cast(sum(amount_minor) as bigint) as "total",
+                   -count(amount_minor) as "txnCount",
+                   count(*) as "rowCount"
+            from updated
+            group by 1, 2
+            union all
+            select cast(extract(year from date) * 100 + extract(month from date) as integer),
+                   cast(:newCategoryId as integer),
+                   cast(sum(amount_minor) as bigint),
+                   count(amount_minor),
+                   0
+            from updated
+            group by 1
+            """, nativeQuery = true)
+    List<RollupDelta> recategorizeOwnedMatching(@Param("userId") Long userId,
+                                                @Param("from") LocalDate from,
+                                                @Param("to") LocalDate to,
+                                                @Param("includeUndated") boolean includeUndated,
+                                                @Param("anyCategory") boolean anyCategory,
+                                                @Param("categoryId") Integer categoryId,
+                                                @Param("newCategoryId") Integer newCategoryId);
+
+    @Transactional
+    @Query(value = """
+            with prev as (
+                select id, date, category_id, amount_minor
+                from expenses
+                where id = :id and user_id = :userId
+                for update
+            ), updated as (
+                update expenses e
+                set amount_minor = :amount, category_id = :categoryId, date = :date
+                from prev
+                where e.id = prev.id
+                returning prev.date as old_date, prev.category_id as old_category_id, prev.amount_minor as old_amount,
+                          e.date as new_date, e.category_id as new_category_id, e.amount_minor as new_amount
+            )
+            select cast(extract(year from old_date) * 100 + extract(month from old_date) as integer) as "yearMonth",
+                   coalesce(old_category_id, 0) as "categoryId",
+                   -old_amount as "total",
+                   case when old_amount is null then 0 else -1 end as "txnCount",
+                   1 as "rowCount"
+            from updated
+            union all
+            select cast(extract(year from new_date) * 100 + extract(month from new_date) as integer),
+                   coalesce(new_category_id, 0),
+                   new_amount,
+                   case when new_amount is null then 0 else 1 end,
+                   0
+            from updated
+            """, nativeQuery = true)
+    List<RollupDelta> updateOwned(@Param("userId") Long userId,
+                                  @Param("id") Long id,
+                                  @Param("amount") Long amount,
+                                  @Param("categoryId") Integer categoryId,
+                                  @Param("date") LocalDate date);
 }
@@ -0,0 +1,78 @@
+package in.harshitkumar.centsaiapi.repository;
+
+import in.harshitkumar.centsaiapi.dto.TransactionFilter;
+import in.harshitkumar.centsaiapi.dto.TransactionSort;
+import in.harshitkumar.centsaiapi.models.Expenses;
+import in.harshitkumar.centsaiapi.utils.Money;
+import in.harshitkumar.centsaiapi.utils.TransactionCursor;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the single dynamic query behind the transaction listing. Every predicate is on a column of a
+ * {@code (user_id, ...)} index on {@code expenses}: date range on {@code idx_expenses_user_date_id},
+ * categories on {@code idx_expenses_user_category_date_id}, amount range and amount ordering on
+ * {@code idx_expenses_user_amount_id}.
+ */
+public final class ExpenseSpecifications {
+
+    private ExpenseSpecifications() {
+    }
+
+    /**
+     * @param categoryIds dictionary ids of the filter's categories, or {@code null} when the filter has none;
+     *                    an empty list (only unknown categories requested) matches nothing
+     */
+    public static Specification<Expenses> listing(Long userId, TransactionFilter filter, List<Integer> categoryIds,
+                                                  TransactionCursor after) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("user").get("id"), userId));
+            if (filter.getFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("date"), filter.getFrom()));
+            }
+            if (filter.getTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("date"), filter.getTo()));
+            }
+            if (categoryIds != null) {
+                predicates.add(categoryIds.isEmpty() ? cb.disjunction() : root.get("categoryId").in(categoryIds));
+            }
+            if (filter.getMinAmount() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("amount"), Money.toMinorUnits(filter.getMinAmount())));
+            }
+            if (filter.getMaxAmount() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("amount"), Money.toMinorUnits(filter.getMaxAmount())));
+            }
+            if (after != null) {
+                TransactionSort sort = filter.getSort();
+                predicates.add(sort.isByAmount()
+                        ? after(cb, root.<Long>get("amount"), root.get("id"), after.getAmount(), after.getId(), sort)
+                        : after(cb, root.get("date"), root.get("id"), after.getDate(), after.getId(), sort));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Rows strictly after {@code (key, id)} in the given order. Postgres sorts NULL keys first when
+     * descending and last when ascending, so the seek has to step over (or into) the NULL group explicitly.
+     */
+    private static <K extends Comparable<? super K>> Predicate after(CriteriaBuilder cb, Path<K> key, Path<Long> id,
+                                                                     K lastKey, Long lastId, TransactionSort sort) {
+        boolean descending = sort.getDirection().isDescending();
+        if (lastKey == null) {
+            return descending
+                    ? cb.or(cb.isNotNull(key), cb.lessThan(id, lastId))
+                    : cb.and(cb.isNull(key), cb.greaterThan(id, lastId));
+        }
+        Predicate beyond = descending
+                ? cb.or(cb.lessThan(key, lastKey), cb.and(cb.equal(key, lastKey), cb.lessThan(id, lastId)))
+                : cb.or(cb.greaterThan(key, lastKey), cb.and(cb.equal(key, lastKey), cb.greaterThan(id, lastId)));
+        return descending ? beyond : cb.or(beyond, cb.isNull(key));
+    }
+}
@@ -0,0 +1,79 @@
+package in.harshitkumar.centsaiapi.repository;
+
+import in.harshitkumar.centsaiapi.models.MonthlyRollup;
+import in.harshitkumar.centsaiapi.models.MonthlyRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MonthlyRollupRepository extends JpaRepository<MonthlyRollup, MonthlyRollupId> {
+
+    @Query("""
+            select r from MonthlyRollup r
+            where r.id.userId = :userId and r.id.yearMonth between :fromMonth and :toMonth
+            order by r.id.yearMonth, r.id.categoryId
+            """)
+    List<MonthlyRollup> findRange(@Param("userId") Long userId,
+                                  @Param("fromMonth") Integer fromMonth,
+                                  @Param("toMonth") Integer toMonth);
+
+    /**
+     * Per-user transaction-scoped advisory locks keyed by the user id: rollup writers take the shared lock,
+     * so they never wait for each other, and verification takes the exclusive one.
+     */
+    @Query(value = "select count(*) from (select pg_advisory_xact_lock_shared(:userId)) l", nativeQuery = true)
+    Long lockForWrite(@Param("userId") Long userId);
+
+    @Query(value = "select count(*) from (select pg_advisory_xact_lock(:userId)) l", nativeQuery = true)
+    Long lockForVerify(@Param("userId") Long userId);
+
+    @Query("select r from MonthlyRollup r where r.id.userId = :userId")
+    List<MonthlyRollup> findAllByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = """
+            insert into monthly_rollups (user_id, year_month, category_id, total_minor, txn_count)
+            values (:userId, :yearMonth, :categoryId, :amount, :count)
+            on conflict (user_id, year_month, category_id)
+            do update set total_minor = monthly_rollups.total_minor + excluded.total_minor,
+                          txn_count = monthly_rollups.txn_count + excluded.txn_count
+            """, nativeQuery = true)
+    void applyDelta(@Param("userId") Long userId,
+                    @Param("yearMonth") Integer yearMonth,
+                    @Param("categoryId") Integer categoryId,
+                    @Param("amount") Long amount,
+                    @Param("count") Long count);
+
+    @Modifying
+    @Query("""
+            delete from MonthlyRollup r
+            where r.id.userId = :userId and r.id.yearMonth = :yearMonth and r.id.categoryId = :categoryId
+              and r.txnCount <= 0
+            """)
+    void deleteIfEmpty(@Param("userId") Long userId,
+                       @Param("yearMonth") Integer yearMonth,
+                       @Param("categoryId") Integer categoryId);
+
+    @Modifying
+    @Query("delete from MonthlyRollup r where r.id.userId = :userId")
+    void deleteAllByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = """
+            insert into monthly_rollups (user_id, year_month, category_id, total_minor, txn_count)
+            select user_id,
+                   cast(extract(year from date) * 100 + extract(month from date) as integer),
+                   coalesce(category_id, 0),
+                   sum(amount_minor),
+                   count(*)
+            from expenses
+            where user_id = :userId and date is not null and amount_minor is not null
+            group by 1, 2, 3
+            """, nativeQuery = true)
+    void rebuildForUser(@Param("userId") Long userId);
+}
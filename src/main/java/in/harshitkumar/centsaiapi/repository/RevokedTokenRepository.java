@@ -0,0 +1,25 @@
+package in.harshitkumar.centsaiapi.repository;
+
+import in.harshitkumar.centsaiapi.models.RevokedToken;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, UUID> {
+
+    @Query("select r.jti from RevokedToken r where r.expiresAt > :now")
+    List<UUID> findUnexpiredJtis(@Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RevokedToken r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -2,10 +2,24 @@ package in.harshitkumar.centsaiapi.repository;
 
 import in.harshitkumar.centsaiapi.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Boolean existsByEmail(String email);
+
+    @Query("select u.id from User u order by u.id")
+    List<Long> findAllIds();
+
+    @Query(value = "select data_version from users where id = :userId", nativeQuery = true)
+    Optional<Long> findDataVersion(@Param("userId") Long userId);
+
+    // Also locks the user's row until the writing transaction ends, so versions are handed out in commit order
+    @Query(value = "update users set data_version = data_version + 1 where id = :userId returning data_version",
+            nativeQuery = true)
+    Long incrementDataVersion(@Param("userId") Long userId);
 }
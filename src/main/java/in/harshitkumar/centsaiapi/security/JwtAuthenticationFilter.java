@@ -1,14 +1,13 @@
 package in.harshitkumar.centsaiapi.security;
 
 import in.harshitkumar.centsaiapi.exception.UserNotFound;
-import in.harshitkumar.centsaiapi.models.User;
-import in.harshitkumar.centsaiapi.repository.UserRepository;
-import in.harshitkumar.centsaiapi.utils.JwtUtil;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -20,12 +19,31 @@ import java.io.IOException;
 import java.util.Collections;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
-    private final UserRepository userRepository;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final UserPrincipalCache userPrincipalCache;
+    private final TokenRevocationList tokenRevocationList;
+    private final MeterRegistry meterRegistry;
+    private final Meter.MeterProvider<Timer> verificationTimer;
+    private final Meter.MeterProvider<Timer> lookupTimer;
+
+    public JwtAuthenticationFilter(VerifiedTokenCache verifiedTokenCache,
+                                   UserPrincipalCache userPrincipalCache,
+                                   TokenRevocationList tokenRevocationList,
+                                   MeterRegistry meterRegistry) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.userPrincipalCache = userPrincipalCache;
+        this.tokenRevocationList = tokenRevocationList;
+        this.meterRegistry = meterRegistry;
+        this.verificationTimer = Timer.builder("auth.jwt.verification")
+                .description("JWT verification, served from the verified-token cache when possible")
+                .withRegistry(meterRegistry);
+        this.lookupTimer = Timer.builder("auth.principal.lookup")
+                .description("Checks that the token's user still exists")
+                .withRegistry(meterRegistry);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -40,25 +58,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String token = authHeader.substring(7);
-        Long userId;
-        try {
-            userId = jwtUtil.getUserIdFromJwtToken(token);
-        } catch (Exception e) {
-            log.error("JwtAuthenticationFilter: invalid token: {}", e.getMessage());
+        Timer.Sample verification = Timer.start(meterRegistry);
+        VerifiedToken verified = verifiedTokenCache.verify(token);
+        boolean revoked = verified != null && tokenRevocationList.isRevoked(verified.getJti());
+        verification.stop(verificationTimer.withTag("outcome", verified == null ? "invalid" : revoked ? "revoked" : "valid"));
+        if (verified == null || revoked) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        if (userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (!jwtUtil.validateJwtToken(token)) {
-                log.warn("JwtAuthenticationFilter: token invalid/expired for userId {}", userId);
-                filterChain.doFilter(request, response);
-                return;
+        Long userId = verified.getUserId();
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            Timer.Sample lookup = Timer.start(meterRegistry);
+            boolean exists = userPrincipalCache.exists(userId);
+            lookup.stop(lookupTimer.withTag("outcome", exists ? "found" : "missing"));
+            if (!exists) {
+                throw new UserNotFound("User not found with id: " + userId);
             }
 
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> new UserNotFound("User not found with id: " + userId));
-
             UsernamePasswordAuthenticationToken authentication =
                     new UsernamePasswordAuthenticationToken(userId, token, Collections.emptyList());
 
@@ -0,0 +1,107 @@
+package in.harshitkumar.centsaiapi.security;
+
+import in.harshitkumar.centsaiapi.exception.PasswordHashingUnavailable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Hashes and verifies passwords on {@code passwordHashingExecutor} instead of the request thread, so a
+ * burst of logins can use at most that pool's cores. When its queue is full the call fails at once with
+ * {@link PasswordHashingUnavailable} rather than waiting behind other logins.
+ */
+@Component
+@Slf4j
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolTaskExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final Meter.MeterProvider<Timer> queueTimer;
+    private final Meter.MeterProvider<Timer> hashTimer;
+    private final Meter.MeterProvider<Counter> rejectedCounter;
+    private final int strength;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          @Qualifier("passwordHashingExecutor") ThreadPoolTaskExecutor executor,
+                          MeterRegistry meterRegistry,
+                          @Value("${auth.bcrypt.strength:10}") int strength) {
+        this.passwordEncoder = passwordEncoder;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.queueTimer = Timer.builder("auth.password.queue")
+                .description("Time a password hash waited for a hashing thread")
+                .withRegistry(meterRegistry);
+        this.hashTimer = Timer.builder("auth.password.hash")
+                .description("BCrypt hashing and verification")
+                .withRegistry(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.rejected")
+                .description("Password hashes rejected because the hashing queue was full")
+                .withRegistry(meterRegistry);
+        this.strength = strength;
+    }
+
+    public String encode(String rawPassword) {
+        return run("encode", () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run("matches", () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Whether a BCrypt hash was made with a cost other than {@code auth.bcrypt.strength}, in either
+     * direction. Hashes that are not BCrypt are left alone.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        // $2a$10$<salt and hash>
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$'
+                || encodedPassword.charAt(3) != '$' || encodedPassword.charAt(6) != '$') {
+            return false;
+        }
+        try {
+            return Integer.parseInt(encodedPassword, 4, 6, 10) != strength;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private <T> T run(String operation, Supplier<T> work) {
+        long queuedAt = System.nanoTime();
+        CompletableFuture<T> result;
+        try {
+            result = executor.submitCompletable(() -> {
+                queueTimer.withTag("operation", operation).record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                Timer.Sample sample = Timer.start(meterRegistry);
+                try {
+                    return work.get();
+                } finally {
+                    sample.stop(hashTimer.withTag("operation", operation));
+                }
+            });
+        } catch (TaskRejectedException e) {
+            log.warn("PasswordHasher: Rejected {}, hashing queue is full", operation);
+            rejectedCounter.withTag("operation", operation).increment();
+            throw new PasswordHashingUnavailable("Too many sign-in attempts right now, please retry shortly");
+        }
+
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+}
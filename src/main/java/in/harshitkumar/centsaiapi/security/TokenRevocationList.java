@@ -0,0 +1,113 @@
+package in.harshitkumar.centsaiapi.security;
+
+import in.harshitkumar.centsaiapi.models.RevokedToken;
+import in.harshitkumar.centsaiapi.repository.RevokedTokenRepository;
+import in.harshitkumar.centsaiapi.utils.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Revoked token ids ({@code jti}), persisted in {@code revoked_tokens} and mirrored in a Bloom filter.
+ * Almost every authenticated request is answered by the filter alone ("not revoked"); only a filter hit
+ * is confirmed against the table. The filter is built from the table at startup and rebuilt after every
+ * purge of expired rows, which also picks up tokens revoked by other instances.
+ */
+@Component
+@Slf4j
+public class TokenRevocationList {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final Meter.MeterProvider<Counter> lookups;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private volatile BloomFilter filter;
+    // While a rebuild is loading the table, revocations go into the filter being built as well
+    private volatile BloomFilter pending;
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${auth.revocation.expected-tokens:100000}") int expectedEntries,
+                               @Value("${auth.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.lookups = Counter.builder("auth.revocation.lookups")
+                .description("Revocation filter hits confirmed against the revoked_tokens table")
+                .withRegistry(meterRegistry);
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = BloomFilter.create(expectedEntries, falsePositiveRate);
+        Gauge.builder("auth.revocation.filter.entries", this, list -> list.filter.entries())
+                .description("Token ids in the revocation Bloom filter")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            BloomFilter next = BloomFilter.create(expectedEntries, falsePositiveRate);
+            pending = next;
+            List<UUID> revoked = revokedTokenRepository.findUnexpiredJtis(Instant.now());
+            if (revoked.size() > expectedEntries / 2) {
+                // Leave room for the revocations to come before the next rebuild
+                next = BloomFilter.create(revoked.size() * 2, falsePositiveRate);
+                pending = next;
+                revoked = revokedTokenRepository.findUnexpiredJtis(Instant.now());
+            }
+            revoked.forEach(next::put);
+            filter = next;
+            pending = null;
+            log.info("TokenRevocationList: Loaded {} revoked tokens into a {}-bit filter", revoked.size(), next.bitSize());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Revokes the token until {@code expiresAt}. The row is committed before the id reaches the filter,
+     * so a concurrent rebuild either reads the row or receives the id itself.
+     */
+    public void revoke(UUID jti, Long userId, Instant expiresAt) {
+        revokedTokenRepository.save(RevokedToken.builder()
+                .jti(jti)
+                .userId(userId)
+                .expiresAt(expiresAt)
+                .build());
+        BloomFilter building = pending;
+        if (building != null) {
+            building.put(jti);
+        }
+        filter.put(jti);
+        log.info("TokenRevocationList: Revoked a token of userId {}", userId);
+    }
+
+    public boolean isRevoked(UUID jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        boolean revoked = revokedTokenRepository.existsById(jti);
+        lookups.withTag("outcome", revoked ? "revoked" : "false_positive").increment();
+        return revoked;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocation.purge-interval:10m}",
+            initialDelayString = "${auth.revocation.purge-interval:10m}")
+    public void purgeExpired() {
+        int purged = revokedTokenRepository.deleteExpired(Instant.now());
+        log.info("TokenRevocationList: Purged {} expired revoked tokens", purged);
+        rebuild();
+    }
+}
@@ -0,0 +1,22 @@
+package in.harshitkumar.centsaiapi.security;
+
+import in.harshitkumar.centsaiapi.models.User;
+import jakarta.persistence.PostRemove;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener that drops a user from {@link UserPrincipalCache} as soon as the row is removed,
+ * so a deleted user's still-valid tokens stop authenticating.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCacheInvalidationListener {
+
+    private final UserPrincipalCache userPrincipalCache;
+
+    @PostRemove
+    public void onUserRemoved(User user) {
+        userPrincipalCache.invalidate(user.getId());
+    }
+}
@@ -0,0 +1,59 @@
+package in.harshitkumar.centsaiapi.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import in.harshitkumar.centsaiapi.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Caches which user ids exist so authenticated requests do not need a users table round trip.
+ * Only positive lookups are cached. Entries expire after {@code auth.user-cache.ttl}, and
+ * {@link #invalidate(Long)} must be called whenever a user is deleted or loses access.
+ */
+@Component
+@Slf4j
+public class UserPrincipalCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Boolean> cache;
+
+    public UserPrincipalCache(UserRepository userRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${auth.user-cache.max-size:10000}") long maxSize,
+                              @Value("${auth.user-cache.ttl:10m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.users");
+    }
+
+    public boolean exists(Long userId) {
+        if (cache.getIfPresent(userId) != null) {
+            return true;
+        }
+        boolean exists = userRepository.existsById(userId);
+        if (exists) {
+            cache.put(userId, Boolean.TRUE);
+        }
+        return exists;
+    }
+
+    public void invalidate(Long userId) {
+        log.info("UserPrincipalCache: Invalidating userId {}", userId);
+        cache.invalidate(userId);
+    }
+
+    public void invalidateAll() {
+        log.info("UserPrincipalCache: Invalidating all users");
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,15 @@
+package in.harshitkumar.centsaiapi.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class VerifiedToken {
+    private final Long userId;
+    private final long expiresAtMillis;
+    // Null for tokens issued before token ids were added; those cannot be revoked
+    private final UUID jti;
+}
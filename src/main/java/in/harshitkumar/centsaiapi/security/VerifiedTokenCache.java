@@ -0,0 +1,116 @@
+package in.harshitkumar.centsaiapi.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import in.harshitkumar.centsaiapi.utils.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers tokens whose signature has already been verified, keyed by a SHA-256 digest of the token
+ * so raw bearer tokens are never held in memory. Every entry expires at the token's own {@code exp},
+ * so a cached token can never outlive its validity. Only successful verifications are cached.
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    private final JwtUtil jwtUtil;
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              MeterRegistry meterRegistry,
+                              @Value("${jwt.cache.max-size:10000}") long maxSize) {
+        this.jwtUtil = jwtUtil;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified");
+    }
+
+    /**
+     * Returns the verified token, or {@code null} when the token is malformed, tampered with or expired.
+     */
+    public VerifiedToken verify(String token) {
+        String key = digest(token);
+        VerifiedToken cached = cache.getIfPresent(key);
+        if (cached != null && cached.getExpiresAtMillis() > System.currentTimeMillis()) {
+            return cached;
+        }
+
+        Claims claims;
+        try {
+            claims = jwtUtil.verifyToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("VerifiedTokenCache: invalid token: {}", e.getMessage());
+            return null;
+        }
+
+        Long userId;
+        try {
+            userId = Long.parseLong(claims.getSubject());
+        } catch (NumberFormatException e) {
+            log.warn("VerifiedTokenCache: token subject is not a user id");
+            return null;
+        }
+
+        UUID jti;
+        try {
+            jti = claims.getId() != null ? UUID.fromString(claims.getId()) : null;
+        } catch (IllegalArgumentException e) {
+            log.warn("VerifiedTokenCache: token id is not a UUID");
+            return null;
+        }
+
+        if (claims.getExpiration() == null) {
+            // Without an expiry there is nothing to bound the entry's lifetime, so verify it every time
+            return new VerifiedToken(userId, Long.MAX_VALUE, jti);
+        }
+
+        VerifiedToken verified = new VerifiedToken(userId, claims.getExpiration().getTime(), jti);
+        cache.put(key, verified);
+        return verified;
+    }
+
+    private String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long remainingMillis = value.getExpiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package in.harshitkumar.centsaiapi.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import in.harshitkumar.centsaiapi.dto.ExpenseDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Caches AI extraction results by normalized prompt and coalesces concurrent identical prompts onto a
+ * single in-flight FastAPI call. Failed calls are not cached. Cached lists are shared between requests
+ * and must be treated as read-only.
+ */
+@Component
+@Slf4j
+public class AiPromptCache {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern DAY_BEFORE_YESTERDAY = Pattern.compile("\\bday before yesterday\\b");
+    private static final Pattern YESTERDAY = Pattern.compile("\\byesterday\\b");
+    private static final Pattern TODAY = Pattern.compile("\\b(today|tonight|this morning|this evening)\\b");
+
+    private final AsyncCache<String, List<ExpenseDto>> cache;
+    private final Counter deduplicated;
+
+    public AiPromptCache(MeterRegistry meterRegistry,
+                         @Value("${ai.prompt-cache.max-size:5000}") long maxSize,
+                         @Value("${ai.prompt-cache.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "ai.prompts");
+        this.deduplicated = Counter.builder("ai.prompts.inflight.deduplicated")
+                .description("AI prompts that joined an identical in-flight FastAPI call instead of issuing their own")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<List<ExpenseDto>> get(String prompt, Supplier<CompletableFuture<List<ExpenseDto>>> loader) {
+        String key = normalize(prompt, LocalDate.now());
+        boolean[] loaded = {false};
+        CompletableFuture<List<ExpenseDto>> result = cache.get(key, (k, executor) -> {
+            loaded[0] = true;
+            return loader.get();
+        });
+        if (!loaded[0] && !result.isDone()) {
+            log.debug("AiPromptCache: Joined in-flight AI call for an identical prompt");
+            deduplicated.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Folds case and whitespace and resolves relative dates against the request date. The request date
+     * is also part of the key, because the AI service dates undated prompts with the current day.
+     */
+    static String normalize(String prompt, LocalDate requestDate) {
+        String normalized = WHITESPACE.matcher(prompt.trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+        normalized = DAY_BEFORE_YESTERDAY.matcher(normalized).replaceAll(requestDate.minusDays(2).toString());
+        normalized = YESTERDAY.matcher(normalized).replaceAll(requestDate.minusDays(1).toString());
+        normalized = TODAY.matcher(normalized).replaceAll(requestDate.toString());
+        return requestDate + "|" + normalized;
+    }
+}
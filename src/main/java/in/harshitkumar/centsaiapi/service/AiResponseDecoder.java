@@ -0,0 +1,47 @@
+package in.harshitkumar.centsaiapi.service;
+
+import in.harshitkumar.centsaiapi.dto.ExpenseDto;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+
+import java.util.List;
+
+/**
+ * Decodes the FastAPI response body straight into {@link ExpenseDto}s with readers built once from the
+ * application's {@link ObjectMapper} (which handles {@code LocalDate} natively). The service answers
+ * either with a JSON array or with that array encoded as a JSON string; both are accepted.
+ */
+@Component
+public class AiResponseDecoder {
+
+    private final ObjectReader expensesReader;
+    private final ObjectReader stringReader;
+
+    public AiResponseDecoder(ObjectMapper objectMapper) {
+        this.expensesReader = objectMapper.readerFor(new TypeReference<List<ExpenseDto>>() {
+        });
+        this.stringReader = objectMapper.readerFor(String.class);
+    }
+
+    public List<ExpenseDto> decode(byte[] body) {
+        if (body == null || body.length == 0) {
+            return List.of();
+        }
+        if (firstNonWhitespace(body) == '"') {
+            String json = stringReader.readValue(body);
+            return expensesReader.readValue(json);
+        }
+        return expensesReader.readValue(body);
+    }
+
+    private byte firstNonWhitespace(byte[] body) {
+        for (byte b : body) {
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                return b;
+            }
+        }
+        return 0;
+    }
+}
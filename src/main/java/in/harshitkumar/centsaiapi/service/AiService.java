@@ -1,29 +1,47 @@
 package in.harshitkumar.centsaiapi.service;
 
 import in.harshitkumar.centsaiapi.dto.AiResponse;
+import in.harshitkumar.centsaiapi.dto.BatchAiResponse;
 import in.harshitkumar.centsaiapi.dto.ExpenseDto;
+import in.harshitkumar.centsaiapi.dto.PromptResult;
 import in.harshitkumar.centsaiapi.dto.UserPrompt;
 import in.harshitkumar.centsaiapi.exception.AiMicroserviceNotWorking;
+import in.harshitkumar.centsaiapi.exception.InvalidRequestParameter;
 import in.harshitkumar.centsaiapi.exception.UserNotFound;
 import in.harshitkumar.centsaiapi.models.Expenses;
+import in.harshitkumar.centsaiapi.models.User;
 import in.harshitkumar.centsaiapi.repository.ExpenseRepository;
 import in.harshitkumar.centsaiapi.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import in.harshitkumar.centsaiapi.utils.Money;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
-import tools.jackson.core.type.TypeReference;
-import tools.jackson.databind.ObjectMapper;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @Slf4j
@@ -33,65 +51,120 @@ public class AiService {
     private final WebClient webClient;
     private final UserRepository userRepository;
     private final ExpenseRepository expensesRepository;
+    private final MonthlyRollupService monthlyRollupService;
+    private final CategoryDictionary categoryDictionary;
+    private final LedgerCache ledgerCache;
+    private final UserDataVersions userDataVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final AiPromptCache aiPromptCache;
+    private final AiResponseDecoder aiResponseDecoder;
+    private final Executor aiPersistenceExecutor;
+    private final CircuitBreaker aiCircuitBreaker;
+    private final Bulkhead aiBulkhead;
+    private final MeterRegistry meterRegistry;
 
     @Value("${fastapi.url}")
     private String url;
 
-    public Object extractData(String prompt) {
+    @Value("${ai.batch.max-prompts:50}")
+    private int batchMaxPrompts;
+
+    @Value("${ai.batch.concurrency:20}")
+    private int batchConcurrency;
+
+    public Mono<List<ExpenseDto>> extractData(String prompt) {
 
         log.info("AiService: Sending prompt to FastAPI: {}", prompt);
 
-        try {
-            Mono<Object> response = webClient.post()
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return webClient.post()
                     .uri(url)
                     .bodyValue(Map.of("prompt", prompt))
                     .retrieve()
-                    .bodyToMono(Object.class)
+                    .bodyToMono(byte[].class)
+                    .doOnNext(body -> responseSize().record(body.length))
+                    .map(aiResponseDecoder::decode)
+                    .defaultIfEmpty(List.of())
                     .retryWhen(
                             Retry.backoff(1, Duration.ofMillis(500)) // duration cannot be resolved error
+                                    .doBeforeRetry(signal -> retries(signal.failure()).increment())
                     )
-                    .timeout(Duration.ofSeconds(20));
+                    .timeout(Duration.ofSeconds(20))
+                    .doOnError(TimeoutException.class, e -> timeouts().increment())
+                    .transformDeferred(BulkheadOperator.of(aiBulkhead))
+                    .transformDeferred(CircuitBreakerOperator.of(aiCircuitBreaker))
+                    .doOnSuccess(expenses -> sample.stop(callTimer("success")))
+                    .doOnError(e -> sample.stop(callTimer(outcome(e))));
+        }).onErrorMap(e -> {
+            if (e instanceof CallNotPermittedException || e instanceof BulkheadFullException) {
+                log.warn("AiService: FastAPI call rejected: {}", e.getMessage());
+            } else {
+                log.error("AiService: Error calling FastAPI microservice", e);
+            }
+            return new AiMicroserviceNotWorking("AI service is not responding, please try again");
+        });
+    }
 
-            return response.block();
+    // Whole FastAPI calls including the retry, as seen by the caller; rejected calls never reach FastAPI
+    private Timer callTimer(String outcome) {
+        return Timer.builder("ai.fastapi.calls")
+                .description("FastAPI extraction calls, including retries")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 
-        } catch (Exception e) {
-            log.error("AiService: Error calling FastAPI microservice", e);
-            throw new AiMicroserviceNotWorking("AI service is not responding, please try again");
+    private static String outcome(Throwable e) {
+        if (e instanceof CallNotPermittedException || e instanceof BulkheadFullException) {
+            return "rejected";
+        }
+        if (e instanceof TimeoutException) {
+            return "timeout";
         }
+        return "error";
     }
 
-    public AiResponse objectToAiResponse(Long userId, Object obj) {
-        log.info("AiService: Converting object to AiResponse");
-        ObjectMapper mapper = new ObjectMapper();
-
-        String json = obj.toString();
-
-        List<ExpenseDto> expenses = mapper.readValue(json, new TypeReference<List<ExpenseDto>>() {
-        });
+    private Counter retries(Throwable failure) {
+        return Counter.builder("ai.fastapi.retries")
+                .description("FastAPI calls retried after a failed attempt")
+                .tag("exception", failure.getClass().getSimpleName())
+                .register(meterRegistry);
+    }
 
-        return AiResponse.builder().userId(userId).expenses(expenses).build();
+    private Counter timeouts() {
+        return Counter.builder("ai.fastapi.timeouts")
+                .description("FastAPI calls abandoned after the 20 second timeout")
+                .register(meterRegistry);
     }
 
-    private String capitalize(String str) {
-        if (str == null || str.isEmpty())
-            return str;
-        return str.substring(0, 1).toUpperCase() + str.substring(1).toLowerCase();
+    private DistributionSummary responseSize() {
+        return DistributionSummary.builder("ai.fastapi.response.size")
+                .description("Size of FastAPI response bodies")
+                .baseUnit("bytes")
+                .register(meterRegistry);
     }
 
-    public AiResponse extractData(Long userId, UserPrompt userPrompt) {
+    public CompletableFuture<AiResponse> extractData(Long userId, UserPrompt userPrompt) {
         log.info("AiController: Extracting data from user prompt");
-        return objectToAiResponse(userId, extractData(userPrompt.getPrompt()));
+        String prompt = userPrompt.getPrompt();
+        return aiPromptCache.get(prompt, () -> extractData(prompt).toFuture())
+                .thenApply(expenses -> AiResponse.builder().userId(userId).expenses(expenses).build());
     }
 
-    @Transactional
-    public ResponseEntity<AiResponse> saveData(Long userId, UserPrompt userPrompt) {
+    /**
+     * Sends the prompt to the AI microservice without holding the calling thread. The database
+     * transaction is only opened once the AI result has arrived, on {@code aiPersistenceExecutor}.
+     */
+    public CompletableFuture<ResponseEntity<AiResponse>> saveData(Long userId, UserPrompt userPrompt) {
         log.info("AiService: Saving data for userId {}", userId);
 
-        AiResponse convertedData = extractData(userId, userPrompt);
+        return extractData(userId, userPrompt)
+                .thenApplyAsync(convertedData -> transactionTemplate.execute(status -> saveData(userId, convertedData)),
+                        aiPersistenceExecutor);
+    }
 
-        List<ExpenseDto> expenseDtos = convertedData.getExpenses().stream()
-                .filter(dto -> dto.getAmount() != null && dto.getAmount() > 0)
-                .toList();
+    private ResponseEntity<AiResponse> saveData(Long userId, AiResponse convertedData) {
+        List<ExpenseDto> expenseDtos = validExpenses(convertedData.getExpenses());
 
         if (expenseDtos.isEmpty()) {
             log.info("AiService: No valid expenses to save for userId {}", userId);
@@ -101,19 +174,114 @@ public class AiService {
         var user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFound("User not found with id: " + userId));
 
-        List<Expenses> expenseEntities = expenseDtos.stream()
-                .map(dto -> Expenses.builder()
-                        .amount(dto.getAmount())
-                        .category(capitalize(dto.getCategory()))
-                        .date(dto.getTransactionDate())
-                        .user(user)
-                        .build())
-                .toList();
+        List<Expenses> expenseEntities = toEntities(expenseDtos, user);
 
         expensesRepository.saveAll(expenseEntities);
+        monthlyRollupService.recordAdded(userId, expenseEntities);
+        ledgerCache.recordAdded(userId, expenseEntities);
+        userDataVersions.recordChange(userId);
 
         log.info("AiService: Saved {} expenses for userId {}", expenseEntities.size(), userId);
         return ResponseEntity.status(201).body(convertedData);
     }
 
+    /**
+     * Sends every prompt to the AI microservice with at most {@code ai.batch.concurrency} calls in
+     * flight, but never more than the FastAPI bulkhead admits, then persists all resulting expenses with
+     * one user lookup and one {@code saveAll}. A failing prompt is reported in its result and does not
+     * affect the others.
+     */
+    public CompletableFuture<ResponseEntity<BatchAiResponse>> saveBatch(Long userId, List<UserPrompt> prompts) {
+        log.info("AiService: Saving batch of {} prompts for userId {}", prompts.size(), userId);
+        if (prompts.size() > batchMaxPrompts) {
+            throw new InvalidRequestParameter("A batch may contain at most " + batchMaxPrompts + " prompts");
+        }
+        int concurrency = Math.max(1, Math.min(batchConcurrency, aiBulkhead.getBulkheadConfig().getMaxConcurrentCalls()));
+
+        return Flux.range(0, prompts.size())
+                .flatMapSequential(index -> Mono.fromFuture(() -> extractData(userId, prompts.get(index)), true)
+                                .map(response -> PromptResult.builder()
+                                        .index(index)
+                                        .expenses(validExpenses(response.getExpenses()))
+                                        .build())
+                                .onErrorResume(e -> {
+                                    log.warn("AiService: Prompt {} of batch failed for userId {}: {}", index, userId, e.getMessage());
+                                    return Mono.just(PromptResult.builder()
+                                            .index(index)
+                                            .status(PromptResult.FAILED)
+                                            .error(e instanceof AiMicroserviceNotWorking ? e.getMessage() : "Could not extract transactions from prompt")
+                                            .build());
+                                }),
+                        concurrency)
+                .collectList()
+                .toFuture()
+                .thenApplyAsync(results -> transactionTemplate.execute(status -> saveBatch(userId, results)),
+                        aiPersistenceExecutor);
+    }
+
+    private ResponseEntity<BatchAiResponse> saveBatch(Long userId, List<PromptResult> results) {
+        var user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFound("User not found with id: " + userId));
+
+        List<Expenses> allEntities = new ArrayList<>();
+        List<List<Expenses>> entitiesPerPrompt = new ArrayList<>(results.size());
+        for (PromptResult result : results) {
+            List<Expenses> entities = result.getExpenses() == null ? List.of() : toEntities(result.getExpenses(), user);
+            entitiesPerPrompt.add(entities);
+            allEntities.addAll(entities);
+        }
+
+        if (!allEntities.isEmpty()) {
+            expensesRepository.saveAll(allEntities);
+            monthlyRollupService.recordAdded(userId, allEntities);
+            ledgerCache.recordAdded(userId, allEntities);
+            userDataVersions.recordChange(userId);
+        }
+
+        int saved = 0;
+        int failed = 0;
+        for (int i = 0; i < results.size(); i++) {
+            PromptResult result = results.get(i);
+            List<Expenses> entities = entitiesPerPrompt.get(i);
+            if (PromptResult.FAILED.equals(result.getStatus())) {
+                failed++;
+            } else if (entities.isEmpty()) {
+                result.setStatus(PromptResult.NO_EXPENSES);
+                result.setExpenses(List.of());
+            } else {
+                saved++;
+                result.setStatus(PromptResult.SAVED);
+                result.setExpenses(entities.stream()
+                        .map(expense -> ExpenseDto.fromEntity(expense, categoryDictionary.nameOf(expense.getCategoryId())))
+                        .toList());
+            }
+        }
+
+        log.info("AiService: Saved {} expenses from {} of {} prompts for userId {}", allEntities.size(), saved, results.size(), userId);
+        BatchAiResponse response = BatchAiResponse.builder()
+                .userId(userId)
+                .saved(saved)
+                .failed(failed)
+                .results(results)
+                .build();
+        return ResponseEntity.status(saved > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    private List<ExpenseDto> validExpenses(List<ExpenseDto> expenses) {
+        return expenses.stream()
+                .filter(dto -> dto.getAmount() != null && dto.getAmount().signum() > 0)
+                .toList();
+    }
+
+    private List<Expenses> toEntities(List<ExpenseDto> expenseDtos, User user) {
+        return expenseDtos.stream()
+                .map(dto -> Expenses.builder()
+                        .amount(Money.toMinorUnitsRounded(dto.getAmount()))
+                        .categoryId(categoryDictionary.intern(dto.getCategory()))
+                        .date(dto.getTransactionDate())
+                        .user(user)
+                        .build())
+                .toList();
+    }
+
 }
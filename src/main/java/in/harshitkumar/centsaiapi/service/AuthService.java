@@ -4,33 +4,46 @@ import in.harshitkumar.centsaiapi.dto.AuthResponse;
 import in.harshitkumar.centsaiapi.dto.LoginRequest;
 import in.harshitkumar.centsaiapi.dto.RegistrationRequest;
 import in.harshitkumar.centsaiapi.exception.InvalidCredentials;
+import in.harshitkumar.centsaiapi.exception.InvalidRequestParameter;
+import in.harshitkumar.centsaiapi.exception.NotAuthorizedError;
+import in.harshitkumar.centsaiapi.exception.PasswordHashingUnavailable;
 import in.harshitkumar.centsaiapi.exception.UserAlreadyExistsError;
 import in.harshitkumar.centsaiapi.models.User;
 import in.harshitkumar.centsaiapi.repository.UserRepository;
+import in.harshitkumar.centsaiapi.security.PasswordHasher;
+import in.harshitkumar.centsaiapi.security.TokenRevocationList;
+import in.harshitkumar.centsaiapi.security.VerifiedToken;
+import in.harshitkumar.centsaiapi.security.VerifiedTokenCache;
 import in.harshitkumar.centsaiapi.utils.JwtUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class AuthService {
+    private static final long MAX_REVOCATION_MILLIS = Instant.parse("9999-12-31T00:00:00Z").toEpochMilli();
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationList tokenRevocationList;
 
     public ResponseEntity<AuthResponse> registerUser(RegistrationRequest registrationRequest) {
         log.info("Auth Service: Registering user");
-        User newUser  = toModel(registrationRequest);
-        if(userRepository.existsByEmail(newUser.getEmail())){
+        // Checked before hashing, so a taken email costs no BCrypt work
+        if(userRepository.existsByEmail(registrationRequest.getEmail())){
             log.error("Auth Service: User already exists");
             throw new UserAlreadyExistsError("User with this email address already exists");
         }
+        User newUser  = toModel(registrationRequest);
         userRepository.save(newUser);
         AuthResponse authResponse = toResponseDto(newUser);
         log.info("Auth Service: User registered successfully");
@@ -43,7 +56,7 @@ public class AuthService {
                 .builder()
                 .username(request.getUsername())
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHasher.encode(request.getPassword()))
                 .build();
     }
 
@@ -62,13 +75,46 @@ public class AuthService {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(()-> new InvalidCredentials("Invalid email or password"));
 
-        if(!passwordEncoder.matches(request.getPassword(), user.getPassword())){
+        if(!passwordHasher.matches(request.getPassword(), user.getPassword())){
             log.error("Auth Service: Invalid credentials");
             throw new InvalidCredentials("Invalid email or password");
         }
+        if(passwordHasher.needsRehash(user.getPassword())){
+            rehash(user, request.getPassword());
+        }
 
         AuthResponse authResponse = toResponseDto(user);
         log.info("Auth Service: User logged in successfully");
         return ResponseEntity.ok(authResponse);
     }
+
+    public ResponseEntity<Void> logout(Long userId, String token) {
+        log.info("Auth Service: Logging out userId {}", userId);
+        VerifiedToken verified = verifiedTokenCache.verify(token);
+        if (verified == null || !verified.getUserId().equals(userId)) {
+            log.error("Auth Service: Token does not belong to userId {}", userId);
+            throw new NotAuthorizedError("Invalid token");
+        }
+        if (verified.getJti() == null) {
+            log.error("Auth Service: Token of userId {} has no id", userId);
+            throw new InvalidRequestParameter("This token has no id and cannot be revoked; it stays valid until it expires");
+        }
+
+        // A token without an expiry is kept revoked for as long as Postgres can represent
+        Instant expiresAt = Instant.ofEpochMilli(Math.min(verified.getExpiresAtMillis(), MAX_REVOCATION_MILLIS));
+        tokenRevocationList.revoke(verified.getJti(), userId, expiresAt);
+        log.info("Auth Service: User logged out successfully");
+        return ResponseEntity.noContent().build();
+    }
+
+    // Brings the stored hash to the configured BCrypt cost; a busy hashing pool only postpones it to a later login
+    private void rehash(User user, String rawPassword) {
+        try {
+            user.setPassword(passwordHasher.encode(rawPassword));
+            userRepository.save(user);
+            log.info("Auth Service: Rehashed password of userId {}", user.getId());
+        } catch (PasswordHashingUnavailable e) {
+            log.warn("Auth Service: Skipped rehash of userId {}, hashing pool is busy", user.getId());
+        }
+    }
 }
@@ -0,0 +1,166 @@
+package in.harshitkumar.centsaiapi.service;
+
+import in.harshitkumar.centsaiapi.models.Category;
+import in.harshitkumar.centsaiapi.repository.CategoryRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory, read-mostly view of the {@code categories} table. Every write path canonicalizes category
+ * names with {@link #canonicalize(String)} and interns them here, so "food", "Food" and "FOOD " share one
+ * id. The dictionary is loaded at startup and only grows; a lookup miss falls back to the database.
+ */
+@Service
+@Slf4j
+public class CategoryDictionary {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate internTransaction;
+    private final Map<String, Integer> idsByName = new ConcurrentHashMap<>();
+    private final Map<Integer, String> namesById = new ConcurrentHashMap<>();
+
+    public CategoryDictionary(CategoryRepository categoryRepository, PlatformTransactionManager transactionManager) {
+        this.categoryRepository = categoryRepository;
+        // Only used when intern is called outside a transaction
+        this.internTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void load() {
+        categoryRepository.findAll().forEach(this::remember);
+        log.info("CategoryDictionary: Loaded {} categories", namesById.size());
+    }
+
+    /**
+     * Collapses whitespace, trims, and capitalizes the first character (the rest lower-cased). Returns
+     * {@code null} for blank input. Must stay in step with the V4 backfill migration.
+     */
+    public static String canonicalize(String category) {
+        if (category == null) {
+            return null;
+        }
+        String collapsed = WHITESPACE.matcher(category).replaceAll(" ").strip();
+        if (collapsed.isEmpty()) {
+            return null;
+        }
+        return collapsed.substring(0, 1).toUpperCase(Locale.ROOT) + collapsed.substring(1).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Id of the category, creating it on first use. Returns {@code null} for a blank category.
+     * <p>
+     * A new category is inserted in the caller's transaction, on the connection it already holds, and
+     * only cached once that transaction commits, so a cached id never refers to a rolled-back insert.
+     */
+    public Integer intern(String category) {
+        String name = canonicalize(category);
+        if (name == null) {
+            return null;
+        }
+        Integer id = idsByName.get(name);
+        if (id != null) {
+            return id;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            id = internTransaction.execute(status -> insertOrFind(name));
+            remember(new Category(id, name));
+            return id;
+        }
+        Map<String, Integer> created = createdInTransaction();
+        id = created.get(name);
+        if (id == null) {
+            id = insertOrFind(name);
+            created.put(name, id);
+        }
+        return id;
+    }
+
+    /**
+     * Id of an existing category, without creating it. Returns {@code null} when blank or unknown.
+     */
+    public Integer find(String category) {
+        String name = canonicalize(category);
+        if (name == null) {
+            return null;
+        }
+        Integer id = idsByName.get(name);
+        if (id == null) {
+            // May have been created by another instance since startup
+            id = categoryRepository.findByName(name).map(this::remember).map(Category::getId).orElse(null);
+        }
+        return id;
+    }
+
+    /**
+     * Ids of those {@code categories} that exist; unknown names are dropped.
+     */
+    public List<Integer> findAll(Collection<String> categories) {
+        return categories.stream()
+                .map(this::find)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+    }
+
+    public String nameOf(Integer id) {
+        if (id == null) {
+            return null;
+        }
+        String name = namesById.get(id);
+        if (name == null) {
+            // Created by another instance since startup
+            name = categoryRepository.findById(id).map(this::remember).map(Category::getName).orElse(null);
+        }
+        return name;
+    }
+
+    private Integer insertOrFind(String name) {
+        categoryRepository.insertIfAbsent(name);
+        return categoryRepository.findByName(name)
+                .map(Category::getId)
+                .orElseThrow(() -> new IllegalStateException("Category " + name + " was not created"));
+    }
+
+    // Categories interned by the current transaction, remembered once it commits
+    @SuppressWarnings("unchecked")
+    private Map<String, Integer> createdInTransaction() {
+        Map<String, Integer> created = (Map<String, Integer>) TransactionSynchronizationManager.getResource(this);
+        if (created != null) {
+            return created;
+        }
+        Map<String, Integer> pending = new HashMap<>();
+        TransactionSynchronizationManager.bindResource(this, pending);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(CategoryDictionary.this);
+                if (status == STATUS_COMMITTED) {
+                    pending.forEach((name, id) -> remember(new Category(id, name)));
+                }
+            }
+        });
+        return pending;
+    }
+
+    private Category remember(Category category) {
+        idsByName.put(category.getName(), category.getId());
+        namesById.put(category.getId(), category.getName());
+        return category;
+    }
+}
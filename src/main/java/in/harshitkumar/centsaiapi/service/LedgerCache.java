@@ -0,0 +1,254 @@
+package in.harshitkumar.centsaiapi.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import in.harshitkumar.centsaiapi.dto.ExpenseRow;
+import in.harshitkumar.centsaiapi.models.Expenses;
+import in.harshitkumar.centsaiapi.repository.ExpenseRepository;
+import in.harshitkumar.centsaiapi.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Per-user {@link UserLedger}s, bounded by their estimated heap size ({@code ledger.cache.max-bytes}) and
+ * evicted least-recently-used first. A ledger is loaded with one query on a user's first read; after that
+ * the services keep it current through the {@code record*} hooks, which must be called inside the
+ * transaction that writes the expenses and patch the ledger only once it has committed. Each ledger also
+ * remembers the user's data version it reflects (see {@link UserDataVersions}); a read that finds the stored
+ * version has moved on, after a write through another instance, reloads the ledger. Entries expire after
+ * {@code ledger.cache.ttl}. Users with more than {@code ledger.cache.max-rows-per-user} expenses are not
+ * cached; an empty marker entry remembers that for the same TTL, so their reads skip the count query.
+ */
+@Component
+@Slf4j
+public class LedgerCache {
+
+    // Cached in place of a ledger for users above max-rows-per-user; compared by identity
+    private static final Entry TOO_LARGE = new Entry(UserLedger.builder(0).build(), -1L);
+
+    private final ExpenseRepository expenseRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate loadTransaction;
+    private final AsyncCache<Long, Entry> cache;
+    private final long maxRowsPerUser;
+
+    public LedgerCache(ExpenseRepository expenseRepository,
+                       UserRepository userRepository,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${ledger.cache.max-bytes:268435456}") long maxBytes,
+                       @Value("${ledger.cache.max-rows-per-user:200000}") long maxRowsPerUser,
+                       @Value("${ledger.cache.ttl:10m}") Duration ttl) {
+        this.expenseRepository = expenseRepository;
+        this.userRepository = userRepository;
+        this.maxRowsPerUser = maxRowsPerUser;
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setReadOnly(true);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long userId, Entry entry) -> (int) Math.min(entry.ledger().estimatedBytes(), Integer.MAX_VALUE))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "ledger");
+        Gauge.builder("ledger.cache.rows", this, LedgerCache::cachedRows)
+                .description("Expense rows held in cached ledgers")
+                .register(meterRegistry);
+        Gauge.builder("ledger.cache.bytes", this, LedgerCache::cachedBytes)
+                .description("Estimated heap held by cached ledgers")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("ledger.cache.bytes.per.row", this, LedgerCache::bytesPerRow)
+                .description("Estimated heap per cached expense row, including per-ledger overhead")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The user's ledger, loading it on a miss or when the user's data version has moved past it. Returns
+     * {@code null} when the user does not exist or has too many expenses to cache; callers then fall back to
+     * the database.
+     */
+    public UserLedger get(Long userId) {
+        CompletableFuture<Entry> entry = entry(userId);
+        Entry loaded = join(entry);
+        if (loaded != null && loaded != TOO_LARGE) {
+            long version = userRepository.findDataVersion(userId).orElse(loaded.version());
+            if (version != loaded.version()) {
+                log.info("LedgerCache: Ledger for userId {} is at data version {}, not {}; reloading", userId, loaded.version(), version);
+                cache.asMap().remove(userId, entry);
+                loaded = join(entry(userId));
+            }
+        }
+        return loaded == null || loaded == TOO_LARGE ? null : loaded.ledger();
+    }
+
+    public void recordAdded(Long userId, Collection<Expenses> expenses) {
+        List<UserLedger.Row> rows = expenses.stream().map(UserLedger.Row::of).toList();
+        afterCommit(userId, ledger -> ledger.withRows(rows));
+    }
+
+    public void recordAdded(Long userId, Expenses expense) {
+        recordAdded(userId, List.of(expense));
+    }
+
+    public void recordUpdated(Long userId, Long id, Long amount, Integer categoryId, LocalDate date) {
+        UserLedger.Row row = new UserLedger.Row(id, date, amount, categoryId);
+        afterCommit(userId, ledger -> ledger.withRows(List.of(row)));
+    }
+
+    public void recordRemoved(Long userId, Collection<Long> ids) {
+        List<Long> removed = List.copyOf(ids);
+        afterCommit(userId, ledger -> ledger.withoutIds(removed));
+    }
+
+    /**
+     * Called for writes that select rows by a predicate ({@code ExpenseRepository.deleteOwnedMatching} and
+     * {@code recategorizeOwnedMatching}). The ledger is dropped once the write commits, because re-running
+     * the predicate in memory would change the rows the cache holds, which may differ from the rows the
+     * statement changed.
+     */
+    public void recordChangedMatching(Long userId) {
+        afterCommit(() -> invalidate(userId));
+    }
+
+    /**
+     * Called by {@link UserDataVersions} once a write that moved the user's data version to {@code version}
+     * has committed, after the write's own patches. Only a ledger at the version just before it is advanced;
+     * any other one missed a write and is reloaded on its next read.
+     */
+    public void recordVersion(Long userId, long version) {
+        apply(userId, entry -> entry.version() == version - 1 ? new Entry(entry.ledger(), version) : entry);
+    }
+
+    public void invalidate(Long userId) {
+        log.info("LedgerCache: Invalidating ledger for userId {}", userId);
+        cache.synchronous().invalidate(userId);
+    }
+
+    private CompletableFuture<Entry> entry(Long userId) {
+        // The ledger is loaded after the entry is created, not inside the cache's compute: a JDBC load under
+        // its map lock would pin a virtual thread's carrier for the whole query. Concurrent readers of the
+        // same user wait on the loading reader's future instead.
+        CompletableFuture<Entry> loading = new CompletableFuture<>();
+        CompletableFuture<Entry> entry = cache.get(userId, (id, executor) -> loading);
+        if (entry == loading) {
+            try {
+                loading.complete(load(userId));
+            } catch (Throwable e) {
+                // Any failure, Errors included, must complete the future: readers waiting on it would
+                // otherwise block forever, and the entry would never be replaced
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return entry;
+    }
+
+    private static Entry join(CompletableFuture<Entry> entry) {
+        try {
+            return entry.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private Entry load(Long userId) {
+        return loadTransaction.execute(status -> {
+            // Read ahead of the rows, so the ledger holds at least this version's rows; newer ones only
+            // cost a reload on the next read
+            Long version = userRepository.findDataVersion(userId).orElse(null);
+            if (version == null) {
+                return null;
+            }
+            long rows = expenseRepository.countByUserId(userId);
+            if (rows > maxRowsPerUser) {
+                log.info("LedgerCache: userId {} has {} expenses, above the cached maximum of {}", userId, rows, maxRowsPerUser);
+                return TOO_LARGE;
+            }
+
+            UserLedger.Builder builder = UserLedger.builder((int) rows);
+            try (Stream<ExpenseRow> stream = expenseRepository.streamRowsByUserId(userId)) {
+                stream.forEach(row -> builder.add(row.getId(), row.getDate(), row.getAmount(), row.getCategoryId()));
+            }
+            UserLedger ledger = builder.build();
+            log.info("LedgerCache: Loaded {} expenses for userId {} ({} bytes)", ledger.size(), userId, ledger.estimatedBytes());
+            return new Entry(ledger, version);
+        });
+    }
+
+    // Patches run after commit, so a rolled-back write never reaches the cache. A patch is chained onto the
+    // entry's future, so a load racing with the write is patched once it completes: it either already saw
+    // the committed rows or not, and the patches are idempotent.
+    private void afterCommit(Long userId, UnaryOperator<UserLedger> patch) {
+        afterCommit(() -> apply(userId, entry -> new Entry(patch.apply(entry.ledger()), entry.version())));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+
+            // Ahead of the UserDataVersions version update for the same commit
+            @Override
+            public int getOrder() {
+                return 0;
+            }
+        });
+    }
+
+    private void apply(Long userId, UnaryOperator<Entry> patch) {
+        cache.asMap().computeIfPresent(userId, (id, ledger) -> ledger.thenApply(current -> {
+            if (current == null || current == TOO_LARGE) {
+                return current;
+            }
+            try {
+                return patch.apply(current);
+            } catch (RuntimeException e) {
+                // A null result removes the entry, so the next read reloads it
+                log.warn("LedgerCache: Could not update ledger for userId {}, dropping it: {}", userId, e.getMessage());
+                return null;
+            }
+        }));
+    }
+
+    private double cachedRows() {
+        return cache.synchronous().asMap().values().stream().mapToLong(entry -> entry.ledger().size()).sum();
+    }
+
+    private double cachedBytes() {
+        return cache.synchronous().asMap().values().stream().mapToLong(entry -> entry.ledger().estimatedBytes()).sum();
+    }
+
+    private double bytesPerRow() {
+        double rows = cachedRows();
+        return rows == 0 ? UserLedger.BYTES_PER_ROW : cachedBytes() / rows;
+    }
+
+    // A ledger and the user's data version it reflects
+    private record Entry(UserLedger ledger, long version) {
+    }
+}
@@ -0,0 +1,195 @@
+package in.harshitkumar.centsaiapi.service;
+
+import in.harshitkumar.centsaiapi.dto.RollupDelta;
+import in.harshitkumar.centsaiapi.dto.RollupDriftReport;
+import in.harshitkumar.centsaiapi.dto.RollupSpending;
+import in.harshitkumar.centsaiapi.dto.SpendingSummary;
+import in.harshitkumar.centsaiapi.exception.InvalidRequestParameter;
+import in.harshitkumar.centsaiapi.models.Expenses;
+import in.harshitkumar.centsaiapi.models.MonthlyRollup;
+import in.harshitkumar.centsaiapi.models.MonthlyRollupId;
+import in.harshitkumar.centsaiapi.repository.ExpenseRepository;
+import in.harshitkumar.centsaiapi.repository.MonthlyRollupRepository;
+import in.harshitkumar.centsaiapi.utils.Money;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps {@link MonthlyRollup} in step with expense writes. The record methods must run inside the
+ * transaction that writes the expense, so the rollup and the row it summarizes commit together. They hold
+ * the user's shared rollup lock until that commit, which {@link #verify} waits out.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class MonthlyRollupService {
+
+    private final MonthlyRollupRepository rollupRepository;
+    private final ExpenseRepository expenseRepository;
+    private final CategoryDictionary categoryDictionary;
+    private final UserDataVersions userDataVersions;
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordAdded(Long userId, Collection<Expenses> expenses) {
+        // Per bucket: {total in minor units, count}
+        Map<MonthlyRollupId, long[]> deltas = new HashMap<>();
+        for (Expenses expense : expenses) {
+            MonthlyRollupId key = keyOf(userId, expense.getDate(), expense.getCategoryId());
+            if (key != null && expense.getAmount() != null) {
+                long[] delta = deltas.computeIfAbsent(key, k -> new long[2]);
+                delta[0] = Math.addExact(delta[0], expense.getAmount());
+                delta[1]++;
+            }
+        }
+        if (!deltas.isEmpty()) {
+            rollupRepository.lockForWrite(userId);
+        }
+        deltas.forEach((key, delta) -> rollupRepository.applyDelta(
+                key.getUserId(), key.getYearMonth(), key.getCategoryId(), delta[0], delta[1]));
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordAdded(Long userId, LocalDate date, Integer categoryId, Long amount) {
+        MonthlyRollupId key = keyOf(userId, date, categoryId);
+        if (key != null && amount != null) {
+            rollupRepository.lockForWrite(userId);
+            rollupRepository.applyDelta(userId, key.getYearMonth(), key.getCategoryId(), amount, 1L);
+        }
+    }
+
+    /**
+     * Applies the signed bucket changes reported by a set-based expense statement. Changes to the same
+     * bucket are netted first; buckets that lost rows are dropped once they are empty.
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void applyDeltas(Long userId, Collection<RollupDelta> changes) {
+        Map<MonthlyRollupId, long[]> deltas = new HashMap<>();
+        for (RollupDelta change : changes) {
+            if (change.getYearMonth() == null || change.getTotal() == null) {
+                continue;
+            }
+            long[] delta = deltas.computeIfAbsent(
+                    new MonthlyRollupId(userId, change.getYearMonth(), change.getCategoryId()), k -> new long[2]);
+            delta[0] = Math.addExact(delta[0], change.getTotal());
+            delta[1] += change.getTxnCount();
+        }
+        if (!deltas.isEmpty()) {
+            rollupRepository.lockForWrite(userId);
+        }
+        deltas.forEach((key, delta) -> {
+            if (delta[0] == 0 && delta[1] == 0) {
+                return;
+            }
+            rollupRepository.applyDelta(userId, key.getYearMonth(), key.getCategoryId(), delta[0], delta[1]);
+            if (delta[1] < 0) {
+                rollupRepository.deleteIfEmpty(userId, key.getYearMonth(), key.getCategoryId());
+            }
+        });
+    }
+
+    public SpendingSummary<RollupSpending> summarizeByMonthAndCategory(Long userId, YearMonth from, YearMonth to) {
+        log.info("MonthlyRollupService: Reading monthly rollups for userId {}", userId);
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidRequestParameter("from must not be after to");
+        }
+        int fromMonth = from != null ? toYearMonth(from) : 0;
+        int toMonth = to != null ? toYearMonth(to) : Integer.MAX_VALUE;
+
+        List<RollupSpending> totals = rollupRepository.findRange(userId, fromMonth, toMonth).stream()
+                .map(rollup -> RollupSpending.builder()
+                        .month(YearMonth.of(rollup.getId().getYearMonth() / 100, rollup.getId().getYearMonth() % 100))
+                        .category(fromCategoryKey(rollup.getId().getCategoryId()))
+                        .total(Money.fromMinorUnits(rollup.getTotal()))
+                        .count(rollup.getTxnCount())
+                        .build())
+                .toList();
+
+        return SpendingSummary.<RollupSpending>builder()
+                .userId(userId)
+                .groupBy("month,category")
+                .from(from != null ? from.atDay(1) : null)
+                .to(to != null ? to.atEndOfMonth() : null)
+                .totals(totals)
+                .build();
+    }
+
+    /**
+     * Recomputes the user's rollups from {@code expenses} and compares them with the stored rows.
+     * When {@code repair} is set and any group has drifted, the user's rollups are rebuilt in place.
+     * The user's exclusive rollup lock keeps writers out until this transaction ends, so both reads see the
+     * same committed expenses and rollups, and no writer can insert a group between the delete and the
+     * rebuild.
+     */
+    @Transactional
+    public RollupDriftReport verify(Long userId, boolean repair) {
+        rollupRepository.lockForVerify(userId);
+        Map<MonthlyRollupId, RollupDelta> expected = new HashMap<>();
+        for (RollupDelta row : expenseRepository.sumByMonthAndCategory(userId)) {
+            expected.put(new MonthlyRollupId(userId, row.getYearMonth(), row.getCategoryId()), row);
+        }
+
+        List<String> drifts = new ArrayList<>();
+        int groupsChecked = 0;
+        for (MonthlyRollup actual : rollupRepository.findAllByUserId(userId)) {
+            groupsChecked++;
+            RollupDelta wanted = expected.remove(actual.getId());
+            if (wanted == null) {
+                drifts.add(describe(actual.getId()) + " is stored but has no expenses");
+            } else if (!wanted.getTxnCount().equals(actual.getTxnCount()) || !wanted.getTotal().equals(actual.getTotal())) {
+                drifts.add(describe(actual.getId()) + " stored " + Money.fromMinorUnits(actual.getTotal()) + "/" + actual.getTxnCount()
+                        + " but expenses sum to " + Money.fromMinorUnits(wanted.getTotal()) + "/" + wanted.getTxnCount());
+            }
+        }
+        expected.keySet().forEach(key -> drifts.add(describe(key) + " is missing"));
+        groupsChecked += expected.size();
+
+        boolean repaired = false;
+        if (!drifts.isEmpty() && repair) {
+            rollupRepository.deleteAllByUserId(userId);
+            rollupRepository.flush();
+            rollupRepository.rebuildForUser(userId);
+            userDataVersions.recordChange(userId);
+            repaired = true;
+        }
+
+        return RollupDriftReport.builder()
+                .userId(userId)
+                .groupsChecked(groupsChecked)
+                .drifts(drifts)
+                .repaired(repaired)
+                .build();
+    }
+
+    private MonthlyRollupId keyOf(Long userId, LocalDate date, Integer categoryId) {
+        if (date == null) {
+            return null;
+        }
+        return new MonthlyRollupId(userId, toYearMonth(YearMonth.from(date)), toCategoryKey(categoryId));
+    }
+
+    private int toYearMonth(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+
+    private int toCategoryKey(Integer categoryId) {
+        return categoryId == null ? MonthlyRollup.NO_CATEGORY : categoryId;
+    }
+
+    private String fromCategoryKey(int categoryId) {
+        return categoryId == MonthlyRollup.NO_CATEGORY ? null : categoryDictionary.nameOf(categoryId);
+    }
+
+    private String describe(MonthlyRollupId key) {
+        return "rollup " + key.getYearMonth() + "/" + key.getCategoryId();
+    }
+}
@@ -0,0 +1,52 @@
+package in.harshitkumar.centsaiapi.service;
+
+import in.harshitkumar.centsaiapi.dto.RollupDriftReport;
+import in.harshitkumar.centsaiapi.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically recomputes every user's monthly rollups from {@code expenses} and reports drift.
+ * Each user is checked in its own transaction so a large user base never holds one long transaction.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class MonthlyRollupVerificationJob {
+
+    private final MonthlyRollupService rollupService;
+    private final UserRepository userRepository;
+
+    @Value("${rollups.verify.repair:true}")
+    private boolean repair;
+
+    @Scheduled(cron = "${rollups.verify.cron:0 30 3 * * *}")
+    public void verifyAll() {
+        log.info("MonthlyRollupVerificationJob: Verifying monthly rollups");
+        int usersChecked = 0;
+        int usersWithDrift = 0;
+        int usersFailed = 0;
+        for (Long userId : userRepository.findAllIds()) {
+            RollupDriftReport report;
+            try {
+                report = rollupService.verify(userId, repair);
+            } catch (RuntimeException e) {
+                // One failing user must not stop the check for the rest
+                usersFailed++;
+                log.error("MonthlyRollupVerificationJob: Could not verify rollups for userId {}", userId, e);
+                continue;
+            }
+            usersChecked++;
+            if (report.hasDrift()) {
+                usersWithDrift++;
+                log.warn("MonthlyRollupVerificationJob: {} drifted rollup groups for userId {} (repaired: {}): {}",
+                        report.getDrifts().size(), userId, report.isRepaired(), report.getDrifts());
+            }
+        }
+        log.info("MonthlyRollupVerificationJob: Checked {} users, {} with drift, {} failed",
+                usersChecked, usersWithDrift, usersFailed);
+    }
+}
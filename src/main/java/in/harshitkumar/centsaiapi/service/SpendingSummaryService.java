@@ -0,0 +1,95 @@
+package in.harshitkumar.centsaiapi.service;
+
+import in.harshitkumar.centsaiapi.dto.CategorySpending;
+import in.harshitkumar.centsaiapi.dto.PeriodSpending;
+import in.harshitkumar.centsaiapi.dto.SpendingSummary;
+import in.harshitkumar.centsaiapi.exception.InvalidRequestParameter;
+import in.harshitkumar.centsaiapi.repository.ExpenseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Spending totals, computed from the user's cached {@link UserLedger} when there is one and otherwise by
+ * the database with GROUP BY, so only the summary rows leave Postgres. Open date bounds are replaced with
+ * the widest dates Postgres can store; rows without a date are not part of any period and are therefore
+ * left out of every summary.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class SpendingSummaryService {
+
+    private static final LocalDate EARLIEST = LocalDate.of(1, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    private final ExpenseRepository expenseRepository;
+    private final CategoryDictionary categoryDictionary;
+    private final LedgerCache ledgerCache;
+
+    public SpendingSummary<CategorySpending> summarizeByCategory(Long userId, LocalDate from, LocalDate to) {
+        log.info("SpendingSummaryService: Summarizing spending by category for userId {}", userId);
+        validateRange(from, to);
+        UserLedger ledger = ledgerCache.get(userId);
+        List<CategorySpending> totals = ledger != null
+                ? ledger.sumByCategory(lowerBound(from), upperBound(to))
+                : expenseRepository.sumByCategory(userId, lowerBound(from), upperBound(to));
+        totals.forEach(total -> total.setCategory(categoryDictionary.nameOf(total.getCategoryId())));
+        return SpendingSummary.<CategorySpending>builder()
+                .userId(userId)
+                .groupBy("category")
+                .from(from)
+                .to(to)
+                .totals(totals)
+                .build();
+    }
+
+    public SpendingSummary<PeriodSpending> summarizeByMonth(Long userId, LocalDate from, LocalDate to) {
+        log.info("SpendingSummaryService: Summarizing spending by month for userId {}", userId);
+        validateRange(from, to);
+        UserLedger ledger = ledgerCache.get(userId);
+        List<PeriodSpending> totals = ledger != null
+                ? ledger.sumByMonth(lowerBound(from), upperBound(to))
+                : expenseRepository.sumByMonth(userId, lowerBound(from), upperBound(to));
+        return SpendingSummary.<PeriodSpending>builder()
+                .userId(userId)
+                .groupBy("month")
+                .from(from)
+                .to(to)
+                .totals(totals)
+                .build();
+    }
+
+    public SpendingSummary<PeriodSpending> summarizeByDay(Long userId, LocalDate from, LocalDate to) {
+        log.info("SpendingSummaryService: Summarizing spending by day for userId {}", userId);
+        validateRange(from, to);
+        UserLedger ledger = ledgerCache.get(userId);
+        List<PeriodSpending> totals = ledger != null
+                ? ledger.sumByDay(lowerBound(from), upperBound(to))
+                : expenseRepository.sumByDay(userId, lowerBound(from), upperBound(to));
+        return SpendingSummary.<PeriodSpending>builder()
+                .userId(userId)
+                .groupBy("day")
+                .from(from)
+                .to(to)
+                .totals(totals)
+                .build();
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidRequestParameter("from must not be after to");
+        }
+    }
+
+    private LocalDate lowerBound(LocalDate from) {
+        return from != null ? from : EARLIEST;
+    }
+
+    private LocalDate upperBound(LocalDate to) {
+        return to != null ? to : LATEST;
+    }
+}
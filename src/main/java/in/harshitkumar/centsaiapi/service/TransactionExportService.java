@@ -0,0 +1,86 @@
+package in.harshitkumar.centsaiapi.service;
+
+import in.harshitkumar.centsaiapi.dto.ExpenseDto;
+import in.harshitkumar.centsaiapi.dto.ExportFormat;
+import in.harshitkumar.centsaiapi.models.Expenses;
+import in.harshitkumar.centsaiapi.repository.ExpenseRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TransactionExportService {
+
+    private static final String CSV_HEADER = "id,date,amount,category\n";
+
+    private final ExpenseRepository expenseRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final CategoryDictionary categoryDictionary;
+
+    /**
+     * Writes every transaction of the user to {@code out} while the rows are read from the database.
+     * Each entity is detached as soon as it has been written, so memory use does not grow with row count.
+     */
+    @Transactional(readOnly = true)
+    public long exportTransactions(Long userId, ExportFormat format, OutputStream out) throws IOException {
+        log.info("TransactionExportService: Exporting transactions for userId {} as {}", userId, format);
+        ObjectWriter jsonWriter = objectMapper.writerFor(ExpenseDto.class);
+        OutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+
+        if (format == ExportFormat.CSV) {
+            buffered.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+
+        long count = 0;
+        try (Stream<Expenses> rows = expenseRepository.streamAllByUserId(userId)) {
+            Iterator<Expenses> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Expenses expense = iterator.next();
+                ExpenseDto dto = ExpenseDto.fromEntity(expense, categoryDictionary.nameOf(expense.getCategoryId()));
+                if (format == ExportFormat.CSV) {
+                    buffered.write(toCsvLine(dto).getBytes(StandardCharsets.UTF_8));
+                } else {
+                    buffered.write(jsonWriter.writeValueAsBytes(dto));
+                    buffered.write('\n');
+                }
+                entityManager.detach(expense);
+                count++;
+            }
+        }
+
+        buffered.flush();
+        log.info("TransactionExportService: Exported {} transactions for userId {}", count, userId);
+        return count;
+    }
+
+    private String toCsvLine(ExpenseDto dto) {
+        return dto.getId() + ","
+                + (dto.getTransactionDate() == null ? "" : dto.getTransactionDate()) + ","
+                + (dto.getAmount() == null ? "" : dto.getAmount().toPlainString()) + ","
+                + escapeCsv(dto.getCategory()) + "\n";
+    }
+
+    private String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,193 @@
+package in.harshitkumar.centsaiapi.service;
+
+import in.harshitkumar.centsaiapi.dto.ImportSummary;
+import in.harshitkumar.centsaiapi.dto.RejectedLine;
+import in.harshitkumar.centsaiapi.exception.InvalidRequestParameter;
+import in.harshitkumar.centsaiapi.exception.UserNotFound;
+import in.harshitkumar.centsaiapi.models.Expenses;
+import in.harshitkumar.centsaiapi.repository.ExpenseRepository;
+import in.harshitkumar.centsaiapi.repository.UserRepository;
+import in.harshitkumar.centsaiapi.utils.CsvRecordReader;
+import in.harshitkumar.centsaiapi.utils.Money;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Imports bank-statement CSV files. The upload is parsed one record at a time and persisted in fixed-size
+ * batches, each in its own transaction with the persistence context cleared afterwards, so heap use stays
+ * flat regardless of file size.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionImportService {
+
+    private static final String DATE_COLUMN = "date";
+    private static final String AMOUNT_COLUMN = "amount";
+    private static final String CATEGORY_COLUMN = "category";
+
+    private final ExpenseRepository expenseRepository;
+    private final UserRepository userRepository;
+    private final MonthlyRollupService monthlyRollupService;
+    private final CategoryDictionary categoryDictionary;
+    private final LedgerCache ledgerCache;
+    private final UserDataVersions userDataVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    @Value("${transactions.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${transactions.import.max-rejected-details:100}")
+    private int maxRejectedDetails;
+
+    @Value("${transactions.import.max-row-length:8192}")
+    private int maxRowLength;
+
+    public ImportSummary importCsv(Long userId, InputStream csv) throws IOException {
+        log.info("TransactionImportService: Importing CSV for userId {}", userId);
+        if (!userRepository.existsById(userId)) {
+            log.error("TransactionImportService: User not found for id {}", userId);
+            throw new UserNotFound("User not found with id: " + userId);
+        }
+
+        CsvRecordReader reader = new CsvRecordReader(
+                new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8)), maxRowLength);
+        int[] columns = resolveColumns(reader.next());
+
+        long rowsRead = 0;
+        long imported = 0;
+        long rejected = 0;
+        List<RejectedLine> rejectedLines = new ArrayList<>();
+        List<Expenses> batch = new ArrayList<>(batchSize);
+
+        while (true) {
+            List<String> record;
+            try {
+                record = reader.next();
+            } catch (InvalidRequestParameter e) {
+                // Too long or with an unclosed quote; the reader has skipped past it
+                rowsRead++;
+                rejected++;
+                reject(rejectedLines, reader.getRecordLineNumber(), e.getMessage());
+                continue;
+            }
+            if (record == null) {
+                break;
+            }
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            rowsRead++;
+            try {
+                batch.add(toExpense(record, columns));
+            } catch (InvalidRequestParameter e) {
+                rejected++;
+                reject(rejectedLines, reader.getRecordLineNumber(), e.getMessage());
+            }
+            if (batch.size() == batchSize) {
+                imported += persistBatch(userId, batch);
+            }
+        }
+        if (!batch.isEmpty()) {
+            imported += persistBatch(userId, batch);
+        }
+
+        log.info("TransactionImportService: Imported {} of {} rows for userId {} ({} rejected)",
+                imported, rowsRead, userId, rejected);
+        return ImportSummary.builder()
+                .userId(userId)
+                .rowsRead(rowsRead)
+                .imported(imported)
+                .rejected(rejected)
+                .rejectedLines(rejectedLines)
+                .rejectedLinesTruncated(rejected > rejectedLines.size())
+                .build();
+    }
+
+    private void reject(List<RejectedLine> rejectedLines, long line, String reason) {
+        if (rejectedLines.size() < maxRejectedDetails) {
+            rejectedLines.add(new RejectedLine(line, reason));
+        }
+    }
+
+    private int persistBatch(Long userId, List<Expenses> batch) {
+        int size = batch.size();
+        transactionTemplate.executeWithoutResult(status -> {
+            var user = userRepository.getReferenceById(userId);
+            batch.forEach(expense -> expense.setUser(user));
+            expenseRepository.saveAll(batch);
+            monthlyRollupService.recordAdded(userId, batch);
+            ledgerCache.recordAdded(userId, batch);
+            userDataVersions.recordChange(userId);
+            entityManager.flush();
+            entityManager.clear();
+        });
+        batch.clear();
+        return size;
+    }
+
+    /**
+     * Maps the header row to column positions: {@code [date, amount, category]}, with -1 for absent optional
+     * columns. Other columns that bank exports carry (description, balance, ...) are ignored.
+     */
+    private int[] resolveColumns(List<String> header) {
+        if (header == null) {
+            throw new InvalidRequestParameter("CSV file is empty");
+        }
+        int[] columns = {-1, -1, -1};
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            switch (name) {
+                case DATE_COLUMN -> columns[0] = i;
+                case AMOUNT_COLUMN -> columns[1] = i;
+                case CATEGORY_COLUMN -> columns[2] = i;
+                default -> { }
+            }
+        }
+        if (columns[1] < 0) {
+            throw new InvalidRequestParameter("CSV header must contain an 'amount' column");
+        }
+        return columns;
+    }
+
+    private Expenses toExpense(List<String> record, int[] columns) {
+        Long amount = Money.parse(field(record, columns[1]));
+        if (!TransactionService.isValidAmount(amount)) {
+            throw new InvalidRequestParameter("Amount must be greater than zero");
+        }
+
+        String rawDate = field(record, columns[0]);
+        LocalDate date;
+        try {
+            date = TransactionService.resolveDate(rawDate.isEmpty() ? null : LocalDate.parse(rawDate));
+        } catch (DateTimeParseException e) {
+            throw new InvalidRequestParameter("Invalid date (expected yyyy-MM-dd): " + rawDate);
+        }
+
+        return Expenses.builder()
+                .amount(amount)
+                .date(date)
+                .categoryId(categoryDictionary.intern(field(record, columns[2])))
+                .build();
+    }
+
+    private static String field(List<String> record, int column) {
+        return column >= 0 && column < record.size() ? record.get(column).trim() : "";
+    }
+}
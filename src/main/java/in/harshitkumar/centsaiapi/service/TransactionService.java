@@ -1,62 +1,124 @@
 package in.harshitkumar.centsaiapi.service;
 
+import in.harshitkumar.centsaiapi.dto.BulkOperationResponse;
+import in.harshitkumar.centsaiapi.dto.BulkTransactionRequest;
 import in.harshitkumar.centsaiapi.dto.ExpenseDto;
+import in.harshitkumar.centsaiapi.dto.RollupDelta;
+import in.harshitkumar.centsaiapi.dto.TransactionFilter;
 import in.harshitkumar.centsaiapi.dto.TransactionRequest;
 import in.harshitkumar.centsaiapi.dto.TransactionResponse;
 import in.harshitkumar.centsaiapi.dto.UserTransactions;
-import in.harshitkumar.centsaiapi.exception.NotAuthorizedError;
+import in.harshitkumar.centsaiapi.exception.InvalidRequestParameter;
 import in.harshitkumar.centsaiapi.exception.TransactionNotFound;
 import in.harshitkumar.centsaiapi.exception.UserNotFound;
 import in.harshitkumar.centsaiapi.models.Expenses;
 import in.harshitkumar.centsaiapi.models.User;
 import in.harshitkumar.centsaiapi.repository.ExpenseRepository;
+import in.harshitkumar.centsaiapi.repository.ExpenseSpecifications;
 import in.harshitkumar.centsaiapi.repository.UserRepository;
-import lombok.AllArgsConstructor;
+import in.harshitkumar.centsaiapi.utils.Money;
+import in.harshitkumar.centsaiapi.utils.TransactionCursor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @Service
-@AllArgsConstructor
 @Slf4j
 public class TransactionService {
 
+    private static final LocalDate EARLIEST = LocalDate.of(1, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
     private final ExpenseRepository expenseRepository;
     private final UserRepository userRepository;
+    private final MonthlyRollupService monthlyRollupService;
+    private final CategoryDictionary categoryDictionary;
+    private final LedgerCache ledgerCache;
+    private final UserDataVersions userDataVersions;
+    private final MeterRegistry meterRegistry;
+    // Built once; each call only looks up the registered meter for its tags
+    private final Meter.MeterProvider<Timer> repositoryTimer;
+    private final Meter.MeterProvider<DistributionSummary> listingRows;
+
+    @Value("${transactions.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${transactions.page.max-size:200}")
+    private int maxPageSize;
 
+    @Value("${transactions.bulk.max-ids:1000}")
+    private int maxBulkIds;
+
+    public TransactionService(ExpenseRepository expenseRepository,
+                              UserRepository userRepository,
+                              MonthlyRollupService monthlyRollupService,
+                              CategoryDictionary categoryDictionary,
+                              LedgerCache ledgerCache,
+                              UserDataVersions userDataVersions,
+                              MeterRegistry meterRegistry) {
+        this.expenseRepository = expenseRepository;
+        this.userRepository = userRepository;
+        this.monthlyRollupService = monthlyRollupService;
+        this.categoryDictionary = categoryDictionary;
+        this.ledgerCache = ledgerCache;
+        this.userDataVersions = userDataVersions;
+        this.meterRegistry = meterRegistry;
+        this.repositoryTimer = Timer.builder("transactions.repository")
+                .description("Repository calls made by the transaction endpoints")
+                .withRegistry(meterRegistry);
+        this.listingRows = DistributionSummary.builder("transactions.listing.rows")
+                .description("Transactions returned per listing page")
+                .withRegistry(meterRegistry);
+    }
+
+    @Transactional
     public ResponseEntity<TransactionResponse> addTransaction(Long userId, TransactionRequest request) {
         log.info("TransactionService: Saving data for userId {}", userId);
 
-        if (request.getAmount() == null || request.getAmount() <= 0) {
+        Long amount = Money.toMinorUnits(request.getAmount());
+        if (!isValidAmount(amount)) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
 
-        User user = userRepository.findById(userId)
+        User user = timed("findUser", () -> userRepository.findById(userId))
                 .orElseThrow(() -> new UserNotFound("User not found with id: " + userId));
 
-        LocalDate expenseDate = (request.getDate() != null) ? request.getDate() : LocalDate.now();
+        LocalDate expenseDate = resolveDate(request.getDate());
 
         Expenses expense = Expenses.builder()
                 .user(user)
                 .date(expenseDate)
-                .amount(request.getAmount())
-                .category(request.getCategory())
+                .amount(amount)
+                .categoryId(categoryDictionary.intern(request.getCategory()))
                 .build();
 
-        expenseRepository.save(expense);
+        // Only reserves the id; the INSERT itself is flushed at commit
+        timed("save", () -> expenseRepository.save(expense));
+        monthlyRollupService.recordAdded(userId, expense.getDate(), expense.getCategoryId(), expense.getAmount());
+        ledgerCache.recordAdded(userId, expense);
+        userDataVersions.recordChange(userId);
         log.info("TransactionService: Saved expense with expenseId {} for userId {}", expense.getId(), userId);
 
         LocalDate txDate = expense.getDate();
 
         ExpenseDto dto = ExpenseDto.builder()
-                .amount(expense.getAmount())
-                .category(expense.getCategory())
+                .amount(Money.fromMinorUnits(expense.getAmount()))
+                .category(categoryDictionary.nameOf(expense.getCategoryId()))
                 .transactionDate(txDate)
                 .id(expense.getId())
                 .build();
@@ -69,68 +131,265 @@ public class TransactionService {
         return ResponseEntity.ok(response);
     }
 
+    @Transactional
     public ResponseEntity<?> deleteTransaction(Long userId, Long transactionId) {
         log.info("TransactionService: Deleting transaction {} for userId {}", transactionId, userId);
 
-        Expenses expense = expenseRepository.findById(transactionId)
-                .orElseThrow(() -> {
-                    log.error("TransactionService: Transaction not found for id {}", transactionId);
-                    return new TransactionNotFound("Requested transaction not found: " + transactionId);
-                });
-
-        if (!expense.getUser().getId().equals(userId)) {
-            log.error("TransactionService: User {} is not authorized to delete transaction {}", userId, transactionId);
-            throw new NotAuthorizedError("You are not authorized to delete this transaction");
+        // One ownership-scoped DELETE: a row that is missing and a row owned by someone else look the same.
+        List<RollupDelta> deltas = timed("deleteOwned", () -> expenseRepository.deleteOwned(userId, List.of(transactionId)));
+        if (affectedRows(deltas) == 0) {
+            log.error("TransactionService: Transaction {} not found for userId {}", transactionId, userId);
+            throw new TransactionNotFound("Requested transaction not found: " + transactionId);
         }
 
-        expenseRepository.delete(expense);
+        monthlyRollupService.applyDeltas(userId, deltas);
+        ledgerCache.recordRemoved(userId, List.of(transactionId));
+        userDataVersions.recordChange(userId);
         log.info("TransactionService: Deleted transaction {} for userId {}", transactionId, userId);
         return ResponseEntity.status(HttpStatus.OK).body(Map.of("message", "Transaction deleted successfully"));
     }
 
 
+    @Transactional
     public ResponseEntity<?> updateTransaction(Long userId, Long transactionId, TransactionRequest transactionRequest) {
         log.info("TransactionService: Updating transaction {} for userId {}", transactionId, userId);
 
-        Expenses expense = expenseRepository.findById(transactionId).orElseThrow(() -> {
-            log.error("TransactionService: Transaction not found for id {}", transactionId);
-            return new TransactionNotFound("Requested transaction not found: " + transactionId);
-        });
-
-        if (!expense.getUser().getId().equals(userId)) {
-            log.error("TransactionService: User {} is not authorized to update transaction {}", userId, transactionId);
-            throw new NotAuthorizedError("You are not authorized to update this transaction");
+        Long amount = Money.toMinorUnits(transactionRequest.getAmount());
+        Integer categoryId = categoryDictionary.intern(transactionRequest.getCategory());
+        List<RollupDelta> deltas = timed("updateOwned", () -> expenseRepository.updateOwned(userId, transactionId,
+                amount, categoryId, transactionRequest.getDate()));
+        if (affectedRows(deltas) == 0) {
+            log.error("TransactionService: Transaction {} not found for userId {}", transactionId, userId);
+            throw new TransactionNotFound("Requested transaction not found: " + transactionId);
         }
 
-        expense.setAmount(transactionRequest.getAmount());
-        expense.setCategory(transactionRequest.getCategory());
-        expense.setDate(transactionRequest.getDate());
-        expenseRepository.save(expense);
+        monthlyRollupService.applyDeltas(userId, deltas);
+        ledgerCache.recordUpdated(userId, transactionId, amount, categoryId, transactionRequest.getDate());
+        userDataVersions.recordChange(userId);
         log.info("TransactionService: Updated transaction {} for userId {}", transactionId, userId);
         return ResponseEntity.status(HttpStatus.OK).body(Map.of("message", "Transaction updated successfully"));
     }
 
-    public UserTransactions retrieveTransactions(Long userId) {
+    /**
+     * Deletes the user's transactions listed in {@code ids}, or else those matching the date range and
+     * category, with a single statement. Ids that do not exist or belong to another user are ignored.
+     */
+    @Transactional
+    public BulkOperationResponse bulkDelete(Long userId, BulkTransactionRequest request) {
+        log.info("TransactionService: Bulk deleting transactions for userId {}", userId);
+        List<RollupDelta> deltas;
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            if (request.getIds().size() > maxBulkIds) {
+                throw new InvalidRequestParameter("At most " + maxBulkIds + " ids can be deleted at once");
+            }
+            deltas = timed("deleteOwned", () -> expenseRepository.deleteOwned(userId, request.getIds()));
+            ledgerCache.recordRemoved(userId, request.getIds());
+        } else {
+            requireFilter(request);
+            Integer categoryId = categoryDictionary.find(request.getCategory());
+            if (request.getCategory() != null && categoryId == null) {
+                log.info("TransactionService: Category {} does not exist, nothing to delete for userId {}", request.getCategory(), userId);
+                return new BulkOperationResponse(userId, 0);
+            }
+            deltas = timed("deleteOwnedMatching", () -> expenseRepository.deleteOwnedMatching(userId,
+                    lowerBound(request.getFrom()), upperBound(request.getTo()), includesUndated(request),
+                    categoryId == null, categoryId));
+            ledgerCache.recordChangedMatching(userId);
+        }
+        monthlyRollupService.applyDeltas(userId, deltas);
+        userDataVersions.recordChange(userId);
+
+        long affected = affectedRows(deltas);
+        log.info("TransactionService: Bulk deleted {} transactions for userId {}", affected, userId);
+        return new BulkOperationResponse(userId, affected);
+    }
+
+    /**
+     * Moves every transaction of the user matching the date range and category to {@code newCategory}
+     * with a single statement.
+     */
+    @Transactional
+    public BulkOperationResponse bulkRecategorize(Long userId, BulkTransactionRequest request) {
+        log.info("TransactionService: Bulk recategorizing transactions for userId {}", userId);
+        if (CategoryDictionary.canonicalize(request.getNewCategory()) == null) {
+            throw new InvalidRequestParameter("newCategory is required");
+        }
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            throw new InvalidRequestParameter("Recategorize selects transactions by from, to and category, not ids");
+        }
+        requireFilter(request);
+        Integer categoryId = categoryDictionary.find(request.getCategory());
+        if (request.getCategory() != null && categoryId == null) {
+            log.info("TransactionService: Category {} does not exist, nothing to recategorize for userId {}", request.getCategory(), userId);
+            return new BulkOperationResponse(userId, 0);
+        }
+
+        int newCategoryId = categoryDictionary.intern(request.getNewCategory());
+        List<RollupDelta> deltas = timed("recategorizeOwnedMatching", () -> expenseRepository.recategorizeOwnedMatching(userId,
+                lowerBound(request.getFrom()), upperBound(request.getTo()), includesUndated(request),
+                categoryId == null, categoryId, newCategoryId));
+        monthlyRollupService.applyDeltas(userId, deltas);
+        ledgerCache.recordChangedMatching(userId);
+        userDataVersions.recordChange(userId);
+
+        long affected = affectedRows(deltas);
+        log.info("TransactionService: Bulk recategorized {} transactions for userId {}", affected, userId);
+        return new BulkOperationResponse(userId, affected);
+    }
+
+    public UserTransactions retrieveTransactions(Long userId, TransactionFilter filter, String cursor, Integer limit) {
         log.info("TransactionService: Retrieving transactions for userId {}", userId);
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    log.error("TransactionService: User not found for id {}", userId);
-                    return new UserNotFound("User not found with id: " + userId);
-                });
+        int pageSize = resolvePageSize(limit);
+        validateFilter(filter);
+
+        TransactionCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            after = TransactionCursor.decode(cursor);
+            if (after.getSort() != filter.getSort()) {
+                throw new InvalidRequestParameter("cursor does not match the requested sort");
+            }
+        }
+
+        List<Integer> categoryIds = filter.getCategories() == null || filter.getCategories().isEmpty()
+                ? null
+                : categoryDictionary.findAll(filter.getCategories());
+        UserLedger ledger = ledgerCache.get(userId);
+        UserTransactions page = ledger != null
+                ? pageFromLedger(userId, ledger, filter, categoryIds, after, pageSize)
+                : pageFromDatabase(userId, filter, categoryIds, after, pageSize);
+
+        listingRows.withTag("source", ledger != null ? "ledger" : "database").record(page.getAllExpenses().size());
+        log.info("TransactionService: Retrieved {} transactions for userId {}", page.getAllExpenses().size(), userId);
+        return page;
+    }
+
+    // Both paths fetch one extra row to learn whether another page exists without counting.
+    private UserTransactions pageFromLedger(Long userId, UserLedger ledger, TransactionFilter filter, List<Integer> categoryIds,
+                                            TransactionCursor after, int pageSize) {
+        int[] rows = ledger.page(filter, categoryIds, after, pageSize + 1);
+
+        String nextCursor = null;
+        if (rows.length > pageSize) {
+            rows = Arrays.copyOf(rows, pageSize);
+            nextCursor = ledger.cursorAfter(rows[pageSize - 1], filter.getSort()).encode();
+        }
+
+        List<ExpenseDto> expenseDtos = Arrays.stream(rows)
+                .mapToObj(row -> ExpenseDto.builder()
+                        .id(ledger.id(row))
+                        .amount(Money.fromMinorUnits(ledger.amount(row)))
+                        .transactionDate(ledger.date(row))
+                        .category(categoryDictionary.nameOf(ledger.categoryId(row)))
+                        .build())
+                .toList();
+
+        return UserTransactions.builder()
+                .userId(userId)
+                .allExpenses(expenseDtos)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private UserTransactions pageFromDatabase(Long userId, TransactionFilter filter, List<Integer> categoryIds,
+                                              TransactionCursor after, int pageSize) {
+        Specification<Expenses> specification = ExpenseSpecifications.listing(userId, filter, categoryIds, after);
+        List<Expenses> expenses = timed("listing", () -> expenseRepository.findBy(specification,
+                query -> query.sortBy(filter.getSort().toSort()).limit(pageSize + 1).all()));
+
+        if (expenses.isEmpty() && !timed("userExists", () -> userRepository.existsById(userId))) {
+            log.error("TransactionService: User not found for id {}", userId);
+            throw new UserNotFound("User not found with id: " + userId);
+        }
+
+        String nextCursor = null;
+        if (expenses.size() > pageSize) {
+            expenses = expenses.subList(0, pageSize);
+            Expenses last = expenses.get(pageSize - 1);
+            nextCursor = TransactionCursor.after(last, filter.getSort()).encode();
+        }
 
-        List<Expenses> expenses = user.getExpenses();
         List<ExpenseDto> expenseDtos = expenses.stream()
-                .map(expense -> ExpenseDto.builder()
-                        .transactionDate(expense.getDate())
-                        .amount(expense.getAmount())
-                        .category(expense.getCategory())
-                        .id(expense.getId())
-                        .build()
-                )
+                .map(expense -> ExpenseDto.fromEntity(expense, categoryDictionary.nameOf(expense.getCategoryId())))
                 .toList();
 
-        log.info("TransactionService: Retrieved {} transactions for userId {}", expenses.size(), userId);
+        return UserTransactions.builder()
+                .userId(userId)
+                .allExpenses(expenseDtos)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // Repository round trips, timed per operation so slow statements show up without a profiler
+    private <T> T timed(String operation, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = call.get();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(repositoryTimer.withTags("operation", operation, "outcome", outcome));
+        }
+    }
+
+    /**
+     * Amount rule shared by every path that creates expenses (manual entry and CSV import), on minor units.
+     */
+    public static boolean isValidAmount(Long amount) {
+        return Money.isPositive(amount);
+    }
+
+    /**
+     * Expenses without a date are recorded against today.
+     */
+    public static LocalDate resolveDate(LocalDate date) {
+        return date != null ? date : LocalDate.now();
+    }
+
+    private static long affectedRows(List<RollupDelta> deltas) {
+        return deltas.stream().mapToLong(RollupDelta::getRowCount).sum();
+    }
 
-        return UserTransactions.builder().userId(userId).allExpenses(expenseDtos).build();
+    // Without any criterion a bulk statement would touch every transaction the user has.
+    private static void requireFilter(BulkTransactionRequest request) {
+        if (request.getFrom() == null && request.getTo() == null && request.getCategory() == null) {
+            throw new InvalidRequestParameter("Provide ids or at least one of from, to and category");
+        }
+        if (request.getFrom() != null && request.getTo() != null && request.getFrom().isAfter(request.getTo())) {
+            throw new InvalidRequestParameter("from must not be after to");
+        }
+    }
+
+    // Rows without a date only match when the request does not restrict dates at all.
+    private static boolean includesUndated(BulkTransactionRequest request) {
+        return request.getFrom() == null && request.getTo() == null;
+    }
+
+    private static LocalDate lowerBound(LocalDate from) {
+        return from != null ? from : EARLIEST;
+    }
+
+    private static LocalDate upperBound(LocalDate to) {
+        return to != null ? to : LATEST;
+    }
+
+    private static void validateFilter(TransactionFilter filter) {
+        if (filter.getFrom() != null && filter.getTo() != null && filter.getFrom().isAfter(filter.getTo())) {
+            throw new InvalidRequestParameter("from must not be after to");
+        }
+        if (filter.getMinAmount() != null && filter.getMaxAmount() != null
+                && filter.getMinAmount().compareTo(filter.getMaxAmount()) > 0) {
+            throw new InvalidRequestParameter("minAmount must not be greater than maxAmount");
+        }
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1 || limit > maxPageSize) {
+            throw new InvalidRequestParameter("limit must be between 1 and " + maxPageSize);
+        }
+        return limit;
     }
 }
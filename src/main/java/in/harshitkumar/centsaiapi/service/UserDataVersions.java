@@ -0,0 +1,52 @@
+package in.harshitkumar.centsaiapi.service;
+
+import in.harshitkumar.centsaiapi.repository.UserRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Per-user data versions, used as ETags on the read endpoints so an unchanged poll is answered with
+ * {@code 304 Not Modified} after one primary-key lookup. The version is the {@code users.data_version} column:
+ * every expense write calls {@link #recordChange(Long)} inside its transaction, which increments it in the
+ * same commit. Every instance therefore sees the new version exactly when it can see the write.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserDataVersions {
+
+    private final UserRepository userRepository;
+    private final LedgerCache ledgerCache;
+
+    public long current(Long userId) {
+        return userRepository.findDataVersion(userId).orElse(0L);
+    }
+
+    /**
+     * Must be read before the data it tags: a write landing in between then only costs the client one
+     * extra full response, instead of tagging the new data with the old version.
+     */
+    public String etag(Long userId) {
+        return "\"" + current(userId) + "\"";
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordChange(Long userId) {
+        long version = userRepository.incrementDataVersion(userId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ledgerCache.recordVersion(userId, version);
+            }
+
+            // After the LedgerCache patches for the same commit, so a ledger tagged with the new version holds the new rows
+            @Override
+            public int getOrder() {
+                return Ordered.LOWEST_PRECEDENCE;
+            }
+        });
+    }
+}
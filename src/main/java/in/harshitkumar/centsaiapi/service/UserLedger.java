@@ -0,0 +1,458 @@
+package in.harshitkumar.centsaiapi.service;
+
+import in.harshitkumar.centsaiapi.dto.CategorySpending;
+import in.harshitkumar.centsaiapi.dto.PeriodSpending;
+import in.harshitkumar.centsaiapi.dto.TransactionFilter;
+import in.harshitkumar.centsaiapi.dto.TransactionSort;
+import in.harshitkumar.centsaiapi.models.Expenses;
+import in.harshitkumar.centsaiapi.models.MonthlyRollup;
+import in.harshitkumar.centsaiapi.utils.Money;
+import in.harshitkumar.centsaiapi.utils.TransactionCursor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Immutable, columnar copy of one user's expenses, answering the transaction listing and the spending
+ * summaries with the same semantics as the SQL behind them. Rows are stored in {@code (date, id)} order
+ * and {@code amountOrder} holds the {@code (amount, id)} order, so sorted pages and date ranges are
+ * contiguous slices found by binary search. Missing dates and amounts are stored as sentinels that sort
+ * after every real value, like NULL in an ascending Postgres sort; a missing category is
+ * {@link MonthlyRollup#NO_CATEGORY}. Changes produce a new ledger, so readers never see a partial update.
+ */
+public final class UserLedger {
+
+    static final int NO_DATE = Integer.MAX_VALUE;
+    static final long NO_AMOUNT = Long.MAX_VALUE;
+
+    // Per row: id and amount (8 bytes each), epoch day, category id and amount order (4 bytes each)
+    static final int BYTES_PER_ROW = 8 + 8 + 4 + 4 + 4;
+    // Object header and five array references, plus the header of each of the five arrays
+    private static final int FIXED_BYTES = 16 + 5 * 4 + 5 * 16;
+
+    private final long[] ids;
+    private final int[] days;
+    private final long[] amounts;
+    private final int[] categoryIds;
+    private final int[] amountOrder;
+
+    private UserLedger(long[] ids, int[] days, long[] amounts, int[] categoryIds) {
+        this(ids, days, amounts, categoryIds, sortedRows(ids.length, (a, b) -> compare(amounts[a], ids[a], amounts[b], ids[b])));
+    }
+
+    private UserLedger(long[] ids, int[] days, long[] amounts, int[] categoryIds, int[] amountOrder) {
+        this.ids = ids;
+        this.days = days;
+        this.amounts = amounts;
+        this.categoryIds = categoryIds;
+        this.amountOrder = amountOrder;
+    }
+
+    public static Builder builder(int expectedRows) {
+        return new Builder(expectedRows);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Retained heap of this ledger, from the lengths of its arrays (compressed references assumed).
+     */
+    public long estimatedBytes() {
+        return FIXED_BYTES + (long) size() * BYTES_PER_ROW;
+    }
+
+    public long id(int row) {
+        return ids[row];
+    }
+
+    public LocalDate date(int row) {
+        return days[row] == NO_DATE ? null : LocalDate.ofEpochDay(days[row]);
+    }
+
+    public Long amount(int row) {
+        return amounts[row] == NO_AMOUNT ? null : amounts[row];
+    }
+
+    public Integer categoryId(int row) {
+        return categoryIds[row] == MonthlyRollup.NO_CATEGORY ? null : categoryIds[row];
+    }
+
+    public TransactionCursor cursorAfter(int row, TransactionSort sort) {
+        return new TransactionCursor(sort, date(row), amount(row), id(row));
+    }
+
+    /**
+     * Rows of one listing page, in page order; the in-memory counterpart of
+     * {@link in.harshitkumar.centsaiapi.repository.ExpenseSpecifications#listing}.
+     *
+     * @param categoryIds dictionary ids of the filter's categories, or {@code null} when the filter has none;
+     *                    an empty list matches nothing
+     */
+    public int[] page(TransactionFilter filter, List<Integer> categoryIds, TransactionCursor after, int limit) {
+        if (categoryIds != null && categoryIds.isEmpty()) {
+            return new int[0];
+        }
+        int[] categories = categoryIds == null ? null : categoryIds.stream().mapToInt(Integer::intValue).sorted().toArray();
+
+        // A bound on either side excludes rows without a value, as the SQL comparison would
+        boolean dateBounded = filter.getFrom() != null || filter.getTo() != null;
+        int fromDay = filter.getFrom() != null ? epochDay(filter.getFrom()) : Integer.MIN_VALUE;
+        int toDay = filter.getTo() != null ? epochDay(filter.getTo()) : dateBounded ? NO_DATE - 1 : NO_DATE;
+        Long min = Money.toMinorUnits(filter.getMinAmount());
+        Long max = Money.toMinorUnits(filter.getMaxAmount());
+        boolean amountBounded = min != null || max != null;
+        long minAmount = min != null ? min : Long.MIN_VALUE;
+        long maxAmount = max != null ? max : amountBounded ? NO_AMOUNT - 1 : NO_AMOUNT;
+
+        TransactionSort sort = filter.getSort();
+        boolean byAmount = sort.isByAmount();
+        // Positions [start, end) of the sort order; narrowed by the range on the sort key, then by the cursor
+        int start = byAmount ? countBelow(true, minAmount, Long.MIN_VALUE, false) : countBelow(false, fromDay, Long.MIN_VALUE, false);
+        int end = byAmount ? countBelow(true, maxAmount, Long.MAX_VALUE, true) : countBelow(false, toDay, Long.MAX_VALUE, true);
+        boolean descending = sort.getDirection().isDescending();
+        if (after != null) {
+            long key = byAmount ? amountKey(after.getAmount()) : dateKey(after.getDate());
+            if (descending) {
+                end = Math.min(end, countBelow(byAmount, key, after.getId(), false));
+            } else {
+                start = Math.max(start, countBelow(byAmount, key, after.getId(), true));
+            }
+        }
+
+        int[] page = new int[limit];
+        int found = 0;
+        for (int i = 0; i < end - start && found < limit; i++) {
+            int position = descending ? end - 1 - i : start + i;
+            int row = byAmount ? amountOrder[position] : position;
+            if (days[row] >= fromDay && days[row] <= toDay
+                    && amounts[row] >= minAmount && amounts[row] <= maxAmount
+                    && (categories == null || Arrays.binarySearch(categories, this.categoryIds[row]) >= 0)) {
+                page[found++] = row;
+            }
+        }
+        return Arrays.copyOf(page, found);
+    }
+
+    /**
+     * Same result as {@link in.harshitkumar.centsaiapi.repository.ExpenseRepository#sumByCategory}.
+     */
+    public List<CategorySpending> sumByCategory(LocalDate from, LocalDate to) {
+        // Per category: {total, rows with an amount, rows}
+        Map<Integer, long[]> groups = new HashMap<>();
+        int end = endOf(to);
+        for (int row = startOf(from); row < end; row++) {
+            long[] group = groups.computeIfAbsent(categoryIds[row], k -> new long[3]);
+            accumulate(group, amounts[row]);
+        }
+
+        List<CategorySpending> totals = new ArrayList<>(groups.size());
+        groups.forEach((categoryId, group) -> totals.add(new CategorySpending(
+                categoryId == MonthlyRollup.NO_CATEGORY ? null : categoryId, totalOf(group), group[2])));
+        totals.sort(Comparator.comparing(CategorySpending::getTotal, Comparator.nullsFirst(Comparator.<BigDecimal>reverseOrder()))
+                .thenComparing(CategorySpending::getCategoryId, Comparator.nullsLast(Comparator.<Integer>naturalOrder())));
+        return totals;
+    }
+
+    /**
+     * Same result as {@link in.harshitkumar.centsaiapi.repository.ExpenseRepository#sumByMonth}.
+     */
+    public List<PeriodSpending> sumByMonth(LocalDate from, LocalDate to) {
+        return sumByPeriod(from, to, true);
+    }
+
+    /**
+     * Same result as {@link in.harshitkumar.centsaiapi.repository.ExpenseRepository#sumByDay}.
+     */
+    public List<PeriodSpending> sumByDay(LocalDate from, LocalDate to) {
+        return sumByPeriod(from, to, false);
+    }
+
+    /**
+     * This ledger with {@code rows} inserted, replacing any rows with the same ids. Only the new rows are
+     * sorted; they are merged into both orders of the existing rows in one pass each.
+     */
+    UserLedger withRows(Collection<Row> rows) {
+        // A later row replaces an earlier one with the same id
+        Map<Long, Row> byId = new LinkedHashMap<>();
+        rows.forEach(row -> byId.put(row.id(), row));
+        Builder added = new Builder(byId.size());
+        byId.values().forEach(added::add);
+        int count = added.size;
+        int[] byDate = sortedRows(count, (a, b) -> compare(added.days[a], added.ids[a], added.days[b], added.ids[b]));
+        int[] byAmount = sortedRows(count, (a, b) -> compare(added.amounts[a], added.ids[a], added.amounts[b], added.ids[b]));
+        return merge(keptRows(Arrays.copyOf(added.ids, count)), added, byDate, byAmount);
+    }
+
+    UserLedger withoutIds(Collection<Long> removedIds) {
+        long[] removed = removedIds.stream().mapToLong(Long::longValue).toArray();
+        return merge(keptRows(removed), new Builder(0), new int[0], new int[0]);
+    }
+
+    private boolean[] keptRows(long[] droppedIds) {
+        long[] dropped = droppedIds.clone();
+        Arrays.sort(dropped);
+        boolean[] kept = new boolean[size()];
+        for (int row = 0; row < size(); row++) {
+            kept[row] = Arrays.binarySearch(dropped, ids[row]) < 0;
+        }
+        return kept;
+    }
+
+    /**
+     * The {@code kept} rows of this ledger together with the builder's rows, whose date and amount orders
+     * are {@code addedByDate} and {@code addedByAmount}. Both sides are already sorted, so each order of the
+     * result is a linear merge.
+     */
+    private UserLedger merge(boolean[] kept, Builder added, int[] addedByDate, int[] addedByAmount) {
+        int keptCount = 0;
+        for (boolean keep : kept) {
+            keptCount += keep ? 1 : 0;
+        }
+        int size = keptCount + added.size;
+        long[] mergedIds = new long[size];
+        int[] mergedDays = new int[size];
+        long[] mergedAmounts = new long[size];
+        int[] mergedCategoryIds = new int[size];
+        // Position in the merged arrays of each kept row and each added row
+        int[] keptPosition = new int[size()];
+        int[] addedPosition = new int[added.size];
+
+        int row = 0;
+        int next = 0;
+        for (int out = 0; out < size; out++) {
+            while (row < size() && !kept[row]) {
+                row++;
+            }
+            boolean fromLedger = row < size() && (next == added.size
+                    || compare(days[row], ids[row], added.days[addedByDate[next]], added.ids[addedByDate[next]]) < 0);
+            if (fromLedger) {
+                mergedIds[out] = ids[row];
+                mergedDays[out] = days[row];
+                mergedAmounts[out] = amounts[row];
+                mergedCategoryIds[out] = categoryIds[row];
+                keptPosition[row++] = out;
+            } else {
+                int newRow = addedByDate[next++];
+                mergedIds[out] = added.ids[newRow];
+                mergedDays[out] = added.days[newRow];
+                mergedAmounts[out] = added.amounts[newRow];
+                mergedCategoryIds[out] = added.categoryIds[newRow];
+                addedPosition[newRow] = out;
+            }
+        }
+
+        int[] mergedAmountOrder = new int[size];
+        int position = 0;
+        next = 0;
+        for (int out = 0; out < size; out++) {
+            while (position < size() && !kept[amountOrder[position]]) {
+                position++;
+            }
+            int fromLedger = position < size() ? keptPosition[amountOrder[position]] : -1;
+            int fromAdded = next < added.size ? addedPosition[addedByAmount[next]] : -1;
+            if (fromLedger >= 0 && (fromAdded < 0 || compare(mergedAmounts[fromLedger], mergedIds[fromLedger],
+                    mergedAmounts[fromAdded], mergedIds[fromAdded]) < 0)) {
+                mergedAmountOrder[out] = fromLedger;
+                position++;
+            } else {
+                mergedAmountOrder[out] = fromAdded;
+                next++;
+            }
+        }
+        return new UserLedger(mergedIds, mergedDays, mergedAmounts, mergedCategoryIds, mergedAmountOrder);
+    }
+
+    // Rows are in date order, so consecutive rows of the same period form one group.
+    private List<PeriodSpending> sumByPeriod(LocalDate from, LocalDate to, boolean monthly) {
+        List<PeriodSpending> totals = new ArrayList<>();
+        long[] group = new long[3];
+        LocalDate period = null;
+        int periodEnd = Integer.MIN_VALUE;
+        int end = endOf(to);
+        for (int row = startOf(from); row < end; row++) {
+            if (days[row] > periodEnd) {
+                if (period != null) {
+                    totals.add(new PeriodSpending(period, totalOf(group), group[2]));
+                    Arrays.fill(group, 0);
+                }
+                LocalDate date = LocalDate.ofEpochDay(days[row]);
+                period = monthly ? date.withDayOfMonth(1) : date;
+                periodEnd = monthly ? epochDay(date.withDayOfMonth(date.lengthOfMonth())) : days[row];
+            }
+            accumulate(group, amounts[row]);
+        }
+        if (period != null) {
+            totals.add(new PeriodSpending(period, totalOf(group), group[2]));
+        }
+        return totals;
+    }
+
+    // Summary ranges are closed on both ends and never include undated rows.
+    private int startOf(LocalDate from) {
+        return countBelow(false, epochDay(from), Long.MIN_VALUE, false);
+    }
+
+    private int endOf(LocalDate to) {
+        return Math.min(countBelow(false, epochDay(to), Long.MAX_VALUE, true), countBelow(false, NO_DATE, Long.MIN_VALUE, false));
+    }
+
+    // SUM skips NULL amounts and is NULL for a group without any; COUNT counts every row.
+    private static void accumulate(long[] group, long amount) {
+        if (amount != NO_AMOUNT) {
+            group[0] = Math.addExact(group[0], amount);
+            group[1]++;
+        }
+        group[2]++;
+    }
+
+    private static Long totalOf(long[] group) {
+        return group[1] == 0 ? null : group[0];
+    }
+
+    /**
+     * Number of positions of the date (or amount) order whose {@code (key, id)} sorts before
+     * {@code (key, id)}, or at it when {@code inclusive}.
+     */
+    private int countBelow(boolean byAmount, long key, long id, boolean inclusive) {
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int row = byAmount ? amountOrder[middle] : middle;
+            int comparison = compare(byAmount ? amounts[row] : days[row], ids[row], key, id);
+            if (comparison < 0 || (inclusive && comparison == 0)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(long key, long id, long otherKey, long otherId) {
+        return key != otherKey ? Long.compare(key, otherKey) : Long.compare(id, otherId);
+    }
+
+    private static int epochDay(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+
+    private static int dateKey(LocalDate date) {
+        return date == null ? NO_DATE : epochDay(date);
+    }
+
+    private static long amountKey(Long amount) {
+        return amount == null ? NO_AMOUNT : amount;
+    }
+
+    // Stable bottom-up merge sort of row numbers, so ordering rows needs no boxing.
+    private static int[] sortedRows(int size, IntBinaryOperator order) {
+        int[] rows = new int[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = i;
+        }
+        int[] buffer = new int[size];
+        for (int width = 1; width < size; width *= 2) {
+            for (int low = 0; low < size - width; low += 2 * width) {
+                int middle = low + width;
+                int high = Math.min(low + 2 * width, size);
+                if (order.applyAsInt(rows[middle - 1], rows[middle]) <= 0) {
+                    continue;
+                }
+                System.arraycopy(rows, low, buffer, low, high - low);
+                int left = low;
+                int right = middle;
+                int out = low;
+                while (left < middle && right < high) {
+                    rows[out++] = order.applyAsInt(buffer[left], buffer[right]) <= 0 ? buffer[left++] : buffer[right++];
+                }
+                while (left < middle) {
+                    rows[out++] = buffer[left++];
+                }
+                while (right < high) {
+                    rows[out++] = buffer[right++];
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * One expense as written by a service, captured before the write commits.
+     */
+    public record Row(long id, LocalDate date, Long amount, Integer categoryId) {
+        public static Row of(Expenses expense) {
+            return new Row(expense.getId(), expense.getDate(), expense.getAmount(), expense.getCategoryId());
+        }
+    }
+
+    /**
+     * Collects rows in any order; {@link #build()} sorts them.
+     */
+    public static final class Builder {
+        private long[] ids;
+        private int[] days;
+        private long[] amounts;
+        private int[] categoryIds;
+        private int size;
+
+        private Builder(int expectedRows) {
+            int capacity = Math.max(expectedRows, 16);
+            ids = new long[capacity];
+            days = new int[capacity];
+            amounts = new long[capacity];
+            categoryIds = new int[capacity];
+        }
+
+        public Builder add(Long id, LocalDate date, Long amount, Integer categoryId) {
+            return add(id, dateKey(date), amountKey(amount), categoryId == null ? MonthlyRollup.NO_CATEGORY : categoryId);
+        }
+
+        private Builder add(Row row) {
+            return add(row.id(), row.date(), row.amount(), row.categoryId());
+        }
+
+        private Builder add(long id, int day, long amount, int categoryId) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                days = Arrays.copyOf(days, capacity);
+                amounts = Arrays.copyOf(amounts, capacity);
+                categoryIds = Arrays.copyOf(categoryIds, capacity);
+            }
+            ids[size] = id;
+            days[size] = day;
+            amounts[size] = amount;
+            categoryIds[size] = categoryId;
+            size++;
+            return this;
+        }
+
+        public UserLedger build() {
+            int[] order = sortedRows(size, (a, b) -> compare(days[a], ids[a], days[b], ids[b]));
+            long[] sortedIds = new long[size];
+            int[] sortedDays = new int[size];
+            long[] sortedAmounts = new long[size];
+            int[] sortedCategoryIds = new int[size];
+            for (int i = 0; i < size; i++) {
+                int row = order[i];
+                sortedIds[i] = ids[row];
+                sortedDays[i] = days[row];
+                sortedAmounts[i] = amounts[row];
+                sortedCategoryIds[i] = categoryIds[row];
+            }
+            return new UserLedger(sortedIds, sortedDays, sortedAmounts, sortedCategoryIds);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package in.harshitkumar.centsaiapi.utils;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over {@link UUID}s. {@link #mightContain(UUID)} never returns {@code false}
+ * for an id that was {@link #put(UUID) put}, and returns {@code true} for an absent id with roughly the
+ * false-positive rate the filter was sized for, as long as no more than the expected number of ids is
+ * added. Safe for concurrent use; ids cannot be removed, so callers rebuild the filter instead.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final AtomicInteger entries = new AtomicInteger();
+
+    private BloomFilter(long bits, int hashes) {
+        this.words = new AtomicLongArray((int) ((bits + 63) >>> 6));
+        this.bits = (long) words.length() << 6;
+        this.hashes = hashes;
+    }
+
+    /**
+     * A filter holding up to {@code expectedEntries} ids at about {@code falsePositiveRate}.
+     */
+    public static BloomFilter create(int expectedEntries, double falsePositiveRate) {
+        if (expectedEntries <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Expected entries must be positive and the false-positive rate in (0, 1)");
+        }
+        double ln2 = Math.log(2);
+        long bits = Math.max(64, (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (ln2 * ln2)));
+        if (bits > (long) Integer.MAX_VALUE << 6) {
+            throw new IllegalArgumentException("Bloom filter for " + expectedEntries + " entries is too large");
+        }
+        int hashes = (int) Math.max(1, Math.round((double) bits / expectedEntries * ln2));
+        return new BloomFilter(bits, hashes);
+    }
+
+    public void put(UUID id) {
+        long h1 = mix(id.getMostSignificantBits() ^ id.getLeastSignificantBits());
+        long h2 = mix(id.getLeastSignificantBits() + 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((words.get(word) & mask) == 0) {
+                words.getAndAccumulate(word, mask, (current, set) -> current | set);
+            }
+        }
+        entries.incrementAndGet();
+    }
+
+    public boolean mightContain(UUID id) {
+        long h1 = mix(id.getMostSignificantBits() ^ id.getLeastSignificantBits());
+        long h2 = mix(id.getLeastSignificantBits() + 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Number of put calls, counting repeated ids more than once
+    public int entries() {
+        return entries.get();
+    }
+
+    public long bitSize() {
+        return bits;
+    }
+
+    public int hashFunctions() {
+        return hashes;
+    }
+
+    // MurmurHash3's 64-bit finalizer: every input bit affects every output bit
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
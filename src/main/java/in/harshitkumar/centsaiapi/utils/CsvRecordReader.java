@@ -0,0 +1,118 @@
+package in.harshitkumar.centsaiapi.utils;
+
+import in.harshitkumar.centsaiapi.exception.InvalidRequestParameter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: comma separated, double-quote escaped fields which may contain
+ * commas, quotes and line breaks. Only the current record is held in memory, and at most
+ * {@code maxRecordLength} characters of it.
+ */
+public class CsvRecordReader {
+
+    private final Reader reader;
+    private final int maxRecordLength;
+    private long lineNumber = 0;
+    private long recordLineNumber = 0;
+    private int pushedBack = -2;
+
+    public CsvRecordReader(Reader reader, int maxRecordLength) {
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * Reads the next record, or returns {@code null} at the end of the input.
+     *
+     * @throws InvalidRequestParameter if the record is longer than {@code maxRecordLength} or ends inside a
+     *                                 quoted field; the reader is then positioned after that record
+     */
+    public List<String> next() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        lineNumber++;
+        recordLineNumber = lineNumber;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = 0;
+        while (true) {
+            if (c != -1 && ++length > maxRecordLength) {
+                // Keep scanning to the end of the record so the next one starts in the right place, but
+                // stop holding its contents
+                fields.clear();
+                field.setLength(0);
+            }
+            if (quoted) {
+                if (c == -1) {
+                    break;
+                } else if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == -1 || c == '\n') {
+                break;
+            } else if (c == '\r') {
+                int following = read();
+                if (following != '\n') {
+                    unread(following);
+                }
+                break;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+        if (quoted) {
+            throw new InvalidRequestParameter("Quoted field is not closed before the end of the file");
+        }
+        if (length > maxRecordLength) {
+            throw new InvalidRequestParameter("Row is longer than " + maxRecordLength + " characters");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * The 1-based line on which the record last returned by {@link #next()} starts.
+     */
+    public long getRecordLineNumber() {
+        return recordLineNumber;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+}
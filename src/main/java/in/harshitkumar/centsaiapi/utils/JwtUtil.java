@@ -3,15 +3,18 @@ package in.harshitkumar.centsaiapi.utils;
 import in.harshitkumar.centsaiapi.models.User;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 @Slf4j
@@ -23,44 +26,53 @@ public class JwtUtil {
     @Value("${jwt.expiration-in-ms}")
     private Long jwtExpirationInMs;
 
+    // Both are immutable and thread-safe, so they are built once instead of per token
+    private Key signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     public String generateJwtToken(User user) {
-        log.info("JwtUtil: Generating JWT token for userId {}", user.getId());
+        log.debug("JwtUtil: Generating JWT token for userId {}", user.getId());
         Date now = new Date();
         Date expirationDate = new Date(now.getTime() + jwtExpirationInMs);
 
         return Jwts.builder()
+                // The token id is what a logout revokes
+                .setId(UUID.randomUUID().toString())
                 .setSubject(String.valueOf(user.getId()))
                 .claim("username", user.getUsername())
                 .setIssuedAt(now)
                 .setExpiration(expirationDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    /**
+     * Verifies the signature and expiry of the token in a single parse and returns its claims.
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims verifyToken(String token) {
+        log.debug("JwtUtil: Verifying JWT token");
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
     public Long getUserIdFromJwtToken(String token) {
-        log.info("JwtUtil: Extracting userId from JWT token");
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return Long.parseLong(claims.getSubject());
+        log.debug("JwtUtil: Extracting userId from JWT token");
+        return Long.parseLong(verifyToken(token).getSubject());
     }
 
     public boolean validateJwtToken(String token) {
-        log.info("JwtUtil: Validating JWT token");
+        log.debug("JwtUtil: Validating JWT token");
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
+            Claims claims = verifyToken(token);
             return claims.getExpiration().after(new Date());
 
         } catch (JwtException | IllegalArgumentException e) {
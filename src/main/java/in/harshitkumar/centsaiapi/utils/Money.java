@@ -0,0 +1,76 @@
+package in.harshitkumar.centsaiapi.utils;
+
+import in.harshitkumar.centsaiapi.exception.InvalidRequestParameter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.stream.LongStream;
+
+/**
+ * Conversions between API decimal amounts and the {@code long} minor units (cents/paise) that are
+ * stored and summed. Amounts carry two decimal places; arithmetic on minor units is exact and
+ * overflow is reported instead of wrapping.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    /**
+     * Exact conversion; amounts with more than two decimal places are rejected.
+     */
+    public static Long toMinorUnits(BigDecimal amount) {
+        if (amount == null) {
+            return null;
+        }
+        try {
+            return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new InvalidRequestParameter("Amount must have at most " + SCALE + " decimal places and fit in range: "
+                    + amount.toPlainString());
+        }
+    }
+
+    /**
+     * Conversion for amounts from sources that may carry extra precision (the AI extraction service):
+     * rounds half-even to two decimal places.
+     */
+    public static Long toMinorUnitsRounded(BigDecimal amount) {
+        if (amount == null) {
+            return null;
+        }
+        return toMinorUnits(amount.setScale(SCALE, RoundingMode.HALF_EVEN));
+    }
+
+    /**
+     * Parses a decimal amount such as {@code 1,234.50}; thousands separators are ignored.
+     */
+    public static Long parse(String amount) {
+        if (amount == null || amount.isBlank()) {
+            return null;
+        }
+        try {
+            return toMinorUnits(new BigDecimal(amount.strip().replace(",", "")));
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestParameter("Invalid amount: " + amount);
+        }
+    }
+
+    public static BigDecimal fromMinorUnits(Long minorUnits) {
+        return minorUnits == null ? null : BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    public static boolean isPositive(Long minorUnits) {
+        return minorUnits != null && minorUnits > 0;
+    }
+
+    public static long sum(long[] minorUnits) {
+        return sum(LongStream.of(minorUnits));
+    }
+
+    public static long sum(LongStream minorUnits) {
+        return minorUnits.reduce(0L, Math::addExact);
+    }
+}
@@ -0,0 +1,69 @@
+package in.harshitkumar.centsaiapi.utils;
+
+import in.harshitkumar.centsaiapi.dto.TransactionSort;
+import in.harshitkumar.centsaiapi.exception.InvalidRequestParameter;
+import in.harshitkumar.centsaiapi.models.Expenses;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for transaction listings. Encodes the sort, sort key and id of the last row
+ * of a page so the next page can be fetched with an index seek instead of an OFFSET scan, and a cursor
+ * can be checked against the sort it is sent back with. The form is {@code SORT/key:id}; cursors in the
+ * original {@code epochDay:id} form are read as {@link TransactionSort#DATE_DESC}, the only sort there was.
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionCursor {
+    private static final String NULL_KEY = "-";
+    private static final char SORT_SEPARATOR = '/';
+
+    private final TransactionSort sort;
+    private final LocalDate date;
+    // Minor units
+    private final Long amount;
+    private final Long id;
+
+    public TransactionCursor(LocalDate date, Long id) {
+        this(TransactionSort.DATE_DESC, date, null, id);
+    }
+
+    public static TransactionCursor after(Expenses last, TransactionSort sort) {
+        return new TransactionCursor(sort, last.getDate(), last.getAmount(), last.getId());
+    }
+
+    public String encode() {
+        String key = sort.isByAmount()
+                ? (amount == null ? NULL_KEY : String.valueOf(amount))
+                : (date == null ? NULL_KEY : String.valueOf(date.toEpochDay()));
+        String raw = sort.name() + SORT_SEPARATOR + key + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            TransactionSort sort = TransactionSort.DATE_DESC;
+            int sortEnd = raw.indexOf(SORT_SEPARATOR);
+            if (sortEnd >= 0) {
+                sort = TransactionSort.valueOf(raw.substring(0, sortEnd));
+                raw = raw.substring(sortEnd + 1);
+            }
+            int separator = raw.indexOf(':');
+            String keyPart = raw.substring(0, separator);
+            Long id = Long.parseLong(raw.substring(separator + 1));
+            if (sort.isByAmount()) {
+                Long amount = NULL_KEY.equals(keyPart) ? null : Long.valueOf(keyPart);
+                return new TransactionCursor(sort, null, amount, id);
+            }
+            LocalDate date = NULL_KEY.equals(keyPart) ? null : LocalDate.ofEpochDay(Long.parseLong(keyPart));
+            return new TransactionCursor(sort, date, null, id);
+        } catch (RuntimeException e) {
+            throw new InvalidRequestParameter("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+-- Schema as it existed before versioned migrations were introduced.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate), so this
+-- script only runs against an empty database.
+
+CREATE TABLE IF NOT EXISTS users (
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_name VARCHAR(255) NOT NULL,
+    password  VARCHAR(255),
+    email     VARCHAR(255) UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS expenses (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    amount   FLOAT(53),
+    category VARCHAR(255),
+    date     DATE,
+    user_id  BIGINT REFERENCES users (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_expenses_user_date_id ON expenses (user_id, date, id);
+
+CREATE TABLE IF NOT EXISTS monthly_rollups (
+    user_id    BIGINT       NOT NULL,
+    year_month INTEGER      NOT NULL,
+    category   VARCHAR(255) NOT NULL,
+    total      FLOAT(53)    NOT NULL,
+    txn_count  BIGINT       NOT NULL,
+    PRIMARY KEY (user_id, year_month, category)
+);
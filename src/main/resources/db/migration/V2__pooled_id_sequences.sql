@@ -0,0 +1,11 @@
+-- Move users and expenses from IDENTITY to sequence-generated ids so Hibernate can batch inserts.
+-- The sequences step by the entity allocationSize (50) for the pooled optimizer, which treats each
+-- value as the upper end of a block of 50 ids. Starting at MAX(id) + 50 makes the first block begin
+-- right after the highest existing id, so existing rows and ids are untouched.
+-- The identity defaults stay in place for any writer that does not supply an id.
+
+CREATE SEQUENCE IF NOT EXISTS expenses_seq INCREMENT BY 50;
+SELECT setval('expenses_seq', COALESCE((SELECT MAX(id) FROM expenses), 0) + 50, false);
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 50, false);
@@ -0,0 +1,5 @@
+-- Composite indexes for the filtered transaction listing: category filters (ordered by date) and
+-- amount ranges / amount ordering. Both lead with user_id so every listing stays a per-user range scan.
+
+CREATE INDEX IF NOT EXISTS idx_expenses_user_category_date_id ON expenses (user_id, category, date, id);
+CREATE INDEX IF NOT EXISTS idx_expenses_user_amount_id ON expenses (user_id, amount, id);
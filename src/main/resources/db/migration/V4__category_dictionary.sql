@@ -0,0 +1,55 @@
+-- Replace the free-form expenses.category VARCHAR with an id into a shared dictionary of canonical
+-- names. Canonicalization here must match CategoryDictionary.canonicalize: whitespace runs collapse to
+-- one space, the result is trimmed, then the first character is upper-cased and the rest lower-cased.
+-- Blank categories become NULL.
+
+CREATE TABLE IF NOT EXISTS categories (
+    id   INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE
+);
+
+CREATE TEMPORARY TABLE canonical_categories ON COMMIT DROP AS
+SELECT raw, upper(left(collapsed, 1)) || lower(substr(collapsed, 2)) AS name
+FROM (
+    SELECT DISTINCT category AS raw, btrim(regexp_replace(category, '\s+', ' ', 'g')) AS collapsed
+    FROM expenses
+    WHERE category IS NOT NULL
+) distinct_categories
+WHERE collapsed <> '';
+
+INSERT INTO categories (name)
+SELECT DISTINCT name FROM canonical_categories
+ON CONFLICT (name) DO NOTHING;
+
+ALTER TABLE expenses ADD COLUMN IF NOT EXISTS category_id INTEGER REFERENCES categories (id);
+
+UPDATE expenses e
+SET category_id = c.id
+FROM canonical_categories cc
+JOIN categories c ON c.name = cc.name
+WHERE e.category = cc.raw;
+
+-- The old column takes its (user_id, category, date, id) index with it.
+ALTER TABLE expenses DROP COLUMN category;
+CREATE INDEX IF NOT EXISTS idx_expenses_user_category_date_id ON expenses (user_id, category_id, date, id);
+
+-- Rollups are derived data: rebuild them keyed by category id (0 = no category).
+DROP TABLE IF EXISTS monthly_rollups;
+CREATE TABLE monthly_rollups (
+    user_id     BIGINT    NOT NULL,
+    year_month  INTEGER   NOT NULL,
+    category_id INTEGER   NOT NULL,
+    total       FLOAT(53) NOT NULL,
+    txn_count   BIGINT    NOT NULL,
+    PRIMARY KEY (user_id, year_month, category_id)
+);
+
+INSERT INTO monthly_rollups (user_id, year_month, category_id, total, txn_count)
+SELECT user_id,
+       CAST(EXTRACT(YEAR FROM date) * 100 + EXTRACT(MONTH FROM date) AS INTEGER),
+       COALESCE(category_id, 0),
+       SUM(amount),
+       COUNT(*)
+FROM expenses
+WHERE user_id IS NOT NULL AND date IS NOT NULL AND amount IS NOT NULL
+GROUP BY 1, 2, 3;
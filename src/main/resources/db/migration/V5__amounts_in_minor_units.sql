@@ -0,0 +1,35 @@
+-- Store money as exact BIGINT minor units (cents/paise) instead of FLOAT(53). Existing amounts are
+-- rounded to two decimal places on the way in; float8 -> numeric keeps 15 significant digits, so
+-- values entered as decimals (49.99) convert exactly.
+
+ALTER TABLE expenses ADD COLUMN IF NOT EXISTS amount_minor BIGINT;
+
+UPDATE expenses
+SET amount_minor = ROUND(CAST(amount AS NUMERIC) * 100)
+WHERE amount IS NOT NULL;
+
+-- The old column takes idx_expenses_user_amount_id with it.
+ALTER TABLE expenses DROP COLUMN amount;
+CREATE INDEX IF NOT EXISTS idx_expenses_user_amount_id ON expenses (user_id, amount_minor, id);
+
+-- Rollup totals are recomputed from the converted rows rather than converted themselves, so they
+-- are exactly the sums of the stored minor units.
+DROP TABLE monthly_rollups;
+CREATE TABLE monthly_rollups (
+    user_id     BIGINT  NOT NULL,
+    year_month  INTEGER NOT NULL,
+    category_id INTEGER NOT NULL,
+    total_minor BIGINT  NOT NULL,
+    txn_count   BIGINT  NOT NULL,
+    PRIMARY KEY (user_id, year_month, category_id)
+);
+
+INSERT INTO monthly_rollups (user_id, year_month, category_id, total_minor, txn_count)
+SELECT user_id,
+       CAST(EXTRACT(YEAR FROM date) * 100 + EXTRACT(MONTH FROM date) AS INTEGER),
+       COALESCE(category_id, 0),
+       SUM(amount_minor),
+       COUNT(*)
+FROM expenses
+WHERE user_id IS NOT NULL AND date IS NOT NULL AND amount_minor IS NOT NULL
+GROUP BY 1, 2, 3;
@@ -0,0 +1,10 @@
+-- Token ids (jti) revoked by logout. A row is only needed until the token would have expired anyway,
+-- so rows are purged by expires_at and the in-memory filter is rebuilt from what remains.
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    jti        UUID                     PRIMARY KEY,
+    user_id    BIGINT                   NOT NULL,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
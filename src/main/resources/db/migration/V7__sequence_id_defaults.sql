@@ -0,0 +1,13 @@
+-- V2 left the IDENTITY defaults on users.id and expenses.id. Their identity sequences still start near the
+-- old MAX(id), inside the id blocks Hibernate now takes from users_seq and expenses_seq, so a row inserted
+-- without an id could collide with one inserted through JPA. Plain inserts draw from the same sequences
+-- instead. A nextval() value is the upper end of a block of 50 that Hibernate never receives, so the two
+-- never overlap.
+
+ALTER TABLE expenses ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE expenses ALTER COLUMN id SET DEFAULT nextval('expenses_seq');
+ALTER SEQUENCE expenses_seq OWNED BY expenses.id;
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER SEQUENCE users_seq OWNED BY users.id;
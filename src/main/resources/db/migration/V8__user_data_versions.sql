@@ -0,0 +1,5 @@
+-- Per-user data version, served as the ETag of the read endpoints and compared against cached ledgers.
+-- Every expense write increments it in its own transaction, so all instances see a new version exactly
+-- when they can see the write. Hibernate does not map the column; new users start at 0.
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS data_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,54 @@
+package in.harshitkumar.centsaiapi.load;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Latencies of every request to one endpoint. Samples are kept exactly (a few hundred thousand per run
+ * at most), so percentiles are nearest-rank over the full set rather than approximations.
+ */
+final class EndpointStats {
+
+    private final String endpoint;
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+
+    EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    synchronized void record(long nanos, boolean ok) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+        if (!ok) {
+            errors++;
+        }
+    }
+
+    synchronized Summary summarize(Duration elapsed) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        double seconds = elapsed.toNanos() / 1e9;
+        return new Summary(endpoint, count, errors, count / seconds,
+                millis(sorted, 0.50), millis(sorted, 0.95), millis(sorted, 0.99),
+                count == 0 ? 0 : sorted[count - 1] / 1e6);
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.max(rank, 1) - 1] / 1e6;
+    }
+
+    /**
+     * One endpoint's results. {@code errors} counts responses outside 2xx/3xx and transport failures.
+     */
+    record Summary(String endpoint, long requests, long errors, double throughputPerSecond,
+                   double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+    }
+}
@@ -0,0 +1,216 @@
+package in.harshitkumar.centsaiapi.load;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Predicate;
+
+/**
+ * Closed-loop workload generator: each simulated user runs its workload's {@code setUp} once and then
+ * calls {@code iterate} back to back, so a new request is only sent when the previous one has returned.
+ * Setup requests are reported separately; requests started during the warmup are discarded and those
+ * started in the following {@code duration} are measured.
+ */
+final class LoadGenerator {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private enum Phase {SETUP, WARMUP, MEASURE, DONE}
+
+    interface Workload {
+        default void setUp(Session session) {
+        }
+
+        void iterate(Session session);
+    }
+
+    record UserGroup(String name, int users, Workload workload) {
+    }
+
+    record ScenarioResult(String scenario, int users, double setupSeconds, double durationSeconds,
+                          List<EndpointStats.Summary> setup, List<EndpointStats.Summary> endpoints) {
+
+        double throughput(Predicate<String> endpoint) {
+            return endpoints.stream().filter(summary -> endpoint.test(summary.endpoint()))
+                    .mapToDouble(EndpointStats.Summary::throughputPerSecond).sum();
+        }
+
+        EndpointStats.Summary endpoint(String name) {
+            return endpoints.stream().filter(summary -> summary.endpoint().equals(name)).findFirst().orElseThrow();
+        }
+    }
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final URI baseUri;
+    private final JsonMapper json;
+
+    private volatile Phase phase;
+    private Map<String, EndpointStats> setupStats;
+    private Map<String, EndpointStats> measuredStats;
+
+    LoadGenerator(URI baseUri, JsonMapper json) {
+        this.baseUri = baseUri;
+        this.json = json;
+    }
+
+    ScenarioResult run(String scenario, Duration warmup, Duration duration, UserGroup... groups) throws InterruptedException {
+        phase = Phase.SETUP;
+        setupStats = new ConcurrentHashMap<>();
+        measuredStats = new ConcurrentHashMap<>();
+
+        int users = 0;
+        for (UserGroup group : groups) {
+            users += group.users();
+        }
+        CountDownLatch setUp = new CountDownLatch(users);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>(users);
+
+        long setupStarted = System.nanoTime();
+        for (UserGroup group : groups) {
+            for (int i = 0; i < group.users(); i++) {
+                Session session = new Session(scenario + "-" + group.name() + "-" + i);
+                threads.add(Thread.ofPlatform().name(session.name).start(() -> simulate(group.workload(), session, setUp, start)));
+            }
+        }
+
+        setUp.await();
+        Duration setupElapsed = Duration.ofNanos(System.nanoTime() - setupStarted);
+        phase = Phase.WARMUP;
+        start.countDown();
+        Thread.sleep(warmup);
+
+        phase = Phase.MEASURE;
+        long measureStarted = System.nanoTime();
+        Thread.sleep(duration);
+        phase = Phase.DONE;
+        Duration measured = Duration.ofNanos(System.nanoTime() - measureStarted);
+
+        for (Thread thread : threads) {
+            thread.join(REQUEST_TIMEOUT.toMillis());
+        }
+        return new ScenarioResult(scenario, users, setupElapsed.toNanos() / 1e9, measured.toNanos() / 1e9,
+                summarize(setupStats, setupElapsed), summarize(measuredStats, measured));
+    }
+
+    private void simulate(Workload workload, Session session, CountDownLatch setUp, CountDownLatch start) {
+        try {
+            workload.setUp(session);
+        } finally {
+            setUp.countDown();
+        }
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        while (phase != Phase.DONE) {
+            workload.iterate(session);
+        }
+    }
+
+    private static List<EndpointStats.Summary> summarize(Map<String, EndpointStats> stats, Duration elapsed) {
+        return stats.values().stream()
+                .map(endpoint -> endpoint.summarize(elapsed))
+                .sorted(Comparator.comparing(EndpointStats.Summary::endpoint))
+                .toList();
+    }
+
+    /**
+     * State of one simulated user. Requests carry the session's bearer token once it has one.
+     */
+    final class Session {
+
+        final String name;
+        final Deque<Long> transactionIds = new ArrayDeque<>();
+        Long userId;
+        String token;
+
+        private Session(String name) {
+            this.name = name;
+        }
+
+        JsonNode get(String endpoint, String path) {
+            return send(endpoint, request(path).GET());
+        }
+
+        JsonNode post(String endpoint, String path, Object body) {
+            return send(endpoint, request(path).POST(jsonBody(body)));
+        }
+
+        JsonNode patch(String endpoint, String path, Object body) {
+            return send(endpoint, request(path).method("PATCH", jsonBody(body)));
+        }
+
+        JsonNode delete(String endpoint, String path) {
+            return send(endpoint, request(path).DELETE());
+        }
+
+        private HttpRequest.Builder request(String path) {
+            HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve(path))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json");
+            if (token != null) {
+                request.header("Authorization", "Bearer " + token);
+            }
+            return request;
+        }
+
+        private HttpRequest.BodyPublisher jsonBody(Object body) {
+            return HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(body));
+        }
+
+        // Returns the parsed body of a successful response, or null when the request failed
+        private JsonNode send(String endpoint, HttpRequest.Builder request) {
+            Phase recording = phase;
+            long started = System.nanoTime();
+            HttpResponse<byte[]> response;
+            try {
+                response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            } catch (IOException e) {
+                record(recording, endpoint, System.nanoTime() - started, false);
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            boolean ok = response.statusCode() < 400;
+            record(recording, endpoint, System.nanoTime() - started, ok);
+            if (!ok || response.body().length == 0) {
+                return null;
+            }
+            return json.readTree(response.body());
+        }
+
+        // Requests count towards the phase they started in: nothing sent during warmup is measured, and
+        // slow requests still in flight when the window closes are not dropped from the tail
+        private void record(Phase startedIn, String endpoint, long nanos, boolean ok) {
+            Map<String, EndpointStats> stats = switch (startedIn) {
+                case SETUP -> setupStats;
+                case MEASURE -> measuredStats;
+                default -> null;
+            };
+            if (stats != null) {
+                stats.computeIfAbsent(endpoint, EndpointStats::new).record(nanos, ok);
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package in.harshitkumar.centsaiapi.load;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Workloads and settings shared by the load tests. Sizes are read from system properties:
+ * {@code load.users}, {@code load.warmup-seconds} and {@code load.duration-seconds}; each test class writes
+ * its results as {@code <class>.json} to {@code load.results-dir}.
+ */
+final class LoadScenarios {
+
+    static final int USERS = Integer.getInteger("load.users", 32);
+    static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("load.warmup-seconds", 5));
+    static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("load.duration-seconds", 20));
+    static final JsonMapper JSON = JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build();
+
+    static final Set<String> CRUD_ENDPOINTS = Set.of(
+            "GET /transactions", "GET /summary/categories", "POST /transaction", "PATCH /transaction", "DELETE /transaction");
+
+    // Properties every load-test context needs besides the datasource and fastapi.url
+    static final String[] APPLICATION_PROPERTIES = {
+            "spring.application.name=centsaiapi-load-test",
+            "spring.jpa.show-sql=false",
+            "logging.level.in.harshitkumar.centsaiapi=WARN",
+            "jwt.secret=load-test-secret-load-test-secret-load-test-secret",
+            "jwt.expiration-in-ms=3600000",
+            "frontend.url=http://localhost:3000",
+            "rollups.verify.cron=-",
+            // Let saturation show up as slow AI calls, not as bulkhead rejections
+            "ai.bulkhead.max-concurrent-calls=500"
+    };
+
+    private static final Path RESULTS_DIR = Path.of(System.getProperty("load.results-dir", "build/reports/load"));
+    private static final String PASSWORD = "load-test-password";
+    private static final String[] CATEGORIES = {"Food", "Travel", "Groceries", "Rent", "Entertainment"};
+    private static final AtomicLong PROMPTS = new AtomicLong();
+
+    private LoadScenarios() {
+    }
+
+    static LoadGenerator.UserGroup crudGroup(int users) {
+        return new LoadGenerator.UserGroup("crud", users, new LoadGenerator.Workload() {
+            @Override
+            public void setUp(LoadGenerator.Session session) {
+                signUp(session);
+            }
+
+            @Override
+            public void iterate(LoadGenerator.Session session) {
+                crud(session);
+            }
+        });
+    }
+
+    static LoadGenerator.UserGroup aiGroup(int users) {
+        return new LoadGenerator.UserGroup("ai", users, new LoadGenerator.Workload() {
+            @Override
+            public void setUp(LoadGenerator.Session session) {
+                signUp(session);
+            }
+
+            @Override
+            public void iterate(LoadGenerator.Session session) {
+                addFromPrompt(session);
+            }
+        });
+    }
+
+    // Registers, logs in and seeds a first page of transactions
+    static void signUp(LoadGenerator.Session session) {
+        String email = email(session);
+        session.post("POST /register", "/api/v1/users/register",
+                Map.of("email", email, "password", PASSWORD, "username", session.name));
+        login(session);
+        for (int i = 0; i < 20; i++) {
+            add(session);
+        }
+    }
+
+    static void login(LoadGenerator.Session session) {
+        String email = email(session);
+        JsonNode auth = session.post("POST /login", "/api/v1/users/login", Map.of("email", email, "password", PASSWORD));
+        if (auth == null) {
+            throw new IllegalStateException("Login failed for " + email);
+        }
+        session.userId = auth.path("user_id").asLong();
+        session.token = auth.path("token").asString();
+    }
+
+    static void crud(LoadGenerator.Session session) {
+        String base = "/api/v1/users/" + session.userId;
+        int roll = ThreadLocalRandom.current().nextInt(100);
+        if (roll < 40) {
+            session.get("GET /transactions", base + "/transactions?limit=50");
+        } else if (roll < 55) {
+            session.get("GET /summary/categories", base + "/summary/categories");
+        } else if (roll < 75 || session.transactionIds.isEmpty()) {
+            add(session);
+        } else if (roll < 90) {
+            session.patch("PATCH /transaction", base + "/transaction/" + session.transactionIds.peekLast(), transaction());
+        } else {
+            session.delete("DELETE /transaction", base + "/transaction/" + session.transactionIds.pollFirst());
+        }
+    }
+
+    // Every prompt is distinct, so the prompt cache never answers in place of FastAPI
+    static void addFromPrompt(LoadGenerator.Session session) {
+        session.post("POST /ai/transaction", "/api/v1/users/ai/" + session.userId + "/transaction",
+                Map.of("prompt", "Spent " + PROMPTS.incrementAndGet() + " rupees on lunch today"));
+    }
+
+    static void writeResults(Class<?> testClass, Map<String, Object> comparisons,
+                             List<LoadGenerator.ScenarioResult> scenarios) throws IOException {
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("generatedAt", Instant.now().toString());
+        results.put("javaVersion", Runtime.version().toString());
+        results.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        results.put("users", USERS);
+        results.put("warmupSeconds", WARMUP.toSeconds());
+        results.put("durationSeconds", DURATION.toSeconds());
+        results.put("comparisons", comparisons);
+        results.put("scenarios", scenarios);
+
+        Files.createDirectories(RESULTS_DIR);
+        Files.write(RESULTS_DIR.resolve(testClass.getSimpleName() + ".json"), JSON.writeValueAsBytes(results));
+    }
+
+    private static void add(LoadGenerator.Session session) {
+        JsonNode created = session.post("POST /transaction", "/api/v1/users/" + session.userId + "/transaction", transaction());
+        if (created != null) {
+            session.transactionIds.addLast(created.path("expenses").path(0).path("id").asLong());
+        }
+    }
+
+    private static String email(LoadGenerator.Session session) {
+        return session.name + "@load.example.com";
+    }
+
+    private static Map<String, Object> transaction() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Map.of(
+                "amount", BigDecimal.valueOf(random.nextLong(100, 500_000), 2),
+                "category", CATEGORIES[random.nextInt(CATEGORIES.length)],
+                "date", LocalDate.of(2025, 1, 1).plusDays(random.nextInt(365)).toString());
+    }
+}
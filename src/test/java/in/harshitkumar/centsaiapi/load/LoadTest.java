@@ -0,0 +1,162 @@
+package in.harshitkumar.centsaiapi.load;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static in.harshitkumar.centsaiapi.load.LoadScenarios.CRUD_ENDPOINTS;
+import static in.harshitkumar.centsaiapi.load.LoadScenarios.USERS;
+import static in.harshitkumar.centsaiapi.load.LoadScenarios.addFromPrompt;
+import static in.harshitkumar.centsaiapi.load.LoadScenarios.aiGroup;
+import static in.harshitkumar.centsaiapi.load.LoadScenarios.crud;
+import static in.harshitkumar.centsaiapi.load.LoadScenarios.crudGroup;
+import static in.harshitkumar.centsaiapi.load.LoadScenarios.login;
+import static in.harshitkumar.centsaiapi.load.LoadScenarios.signUp;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load scenarios against the whole application, booted on a random port over an embedded Postgres with
+ * {@code fastapi.url} pointing at {@link StubFastApi}. Excluded from {@code test}; run with
+ * {@code ./gradlew loadTest}. Throughput and p50/p95/p99 per endpoint for every scenario are written as
+ * JSON (see {@link LoadScenarios}). The properties below mirror {@link LoadScenarios#APPLICATION_PROPERTIES}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.application.name=centsaiapi-load-test",
+        "spring.jpa.show-sql=false",
+        "logging.level.in.harshitkumar.centsaiapi=WARN",
+        "jwt.secret=load-test-secret-load-test-secret-load-test-secret",
+        "jwt.expiration-in-ms=3600000",
+        "frontend.url=http://localhost:3000",
+        "rollups.verify.cron=-",
+        // Let saturation show up as slow AI calls, not as bulkhead rejections
+        "ai.bulkhead.max-concurrent-calls=500"
+})
+class LoadTest {
+
+    private static final List<LoadGenerator.ScenarioResult> SCENARIOS = new ArrayList<>();
+    private static final Map<String, Object> COMPARISONS = new LinkedHashMap<>();
+
+    private static EmbeddedPostgres postgres;
+    private static StubFastApi fastApi;
+
+    @Value("${local.server.port}")
+    private int port;
+
+    @Autowired
+    private CircuitBreaker aiCircuitBreaker;
+
+    private LoadGenerator generator;
+
+    @DynamicPropertySource
+    static void environment(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.start();
+        fastApi = new StubFastApi();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("fastapi.url", fastApi::url);
+    }
+
+    @BeforeEach
+    void reset() {
+        generator = new LoadGenerator(URI.create("http://127.0.0.1:" + port), LoadScenarios.JSON);
+        fastApi.latency(Duration.ofMillis(100), Duration.ofMillis(50)).errorRate(0);
+        aiCircuitBreaker.reset();
+    }
+
+    @AfterAll
+    static void writeResults() throws IOException {
+        LoadScenarios.writeResults(LoadTest.class, COMPARISONS, SCENARIOS);
+        fastApi.close();
+        postgres.close();
+    }
+
+    @Test
+    void mixedWorkload() throws InterruptedException {
+        fastApi.errorRate(0.01);
+
+        LoadGenerator.ScenarioResult result = run("mixed", new LoadGenerator.UserGroup("user", USERS, new LoadGenerator.Workload() {
+            @Override
+            public void setUp(LoadGenerator.Session session) {
+                signUp(session);
+            }
+
+            @Override
+            public void iterate(LoadGenerator.Session session) {
+                int roll = ThreadLocalRandom.current().nextInt(100);
+                if (roll < 10) {
+                    addFromPrompt(session);
+                } else if (roll < 12) {
+                    login(session);
+                } else {
+                    crud(session);
+                }
+            }
+        }));
+
+        assertThat(result.setup()).allSatisfy(endpoint -> assertThat(endpoint.errors()).isZero());
+        assertThat(result.endpoint("GET /transactions").requests()).isPositive();
+        assertThat(result.endpoint("POST /ai/transaction").requests()).isPositive();
+    }
+
+    /**
+     * user-007: with every AI call held for seconds by a slow FastAPI, the CRUD endpoints keep (most of)
+     * the throughput they have without AI traffic, because AI requests release their servlet thread.
+     */
+    @Test
+    void crudThroughputStaysFlatWhileAiIsSaturated() throws InterruptedException {
+        int crudUsers = Math.max(1, USERS / 2);
+        LoadGenerator.ScenarioResult baseline = run("crud-baseline", crudGroup(crudUsers));
+
+        fastApi.latency(Duration.ofSeconds(2), Duration.ofMillis(500));
+        LoadGenerator.ScenarioResult saturated = run("crud-with-saturated-ai",
+                crudGroup(crudUsers), aiGroup(USERS * 2));
+
+        double ratio = saturated.throughput(CRUD_ENDPOINTS::contains) / baseline.throughput(CRUD_ENDPOINTS::contains);
+        COMPARISONS.put("crudThroughputWithSaturatedAi", ratio);
+
+        assertThat(saturated.endpoint("POST /ai/transaction").p50Millis()).isGreaterThan(2_000);
+        assertThat(ratio).isGreaterThan(0.5);
+    }
+
+    /**
+     * user-010: once FastAPI fails consistently the circuit opens, and AI requests are answered with 503
+     * without waiting for the stub's latency, retries or the timeout.
+     */
+    @Test
+    void failingAiIsShortCircuited() throws InterruptedException {
+        fastApi.latency(Duration.ofMillis(300), Duration.ZERO).errorRate(1);
+
+        LoadGenerator.ScenarioResult result = run("ai-failing", aiGroup(USERS));
+        EndpointStats.Summary ai = result.endpoint("POST /ai/transaction");
+        COMPARISONS.put("aiFailingP50Millis", ai.p50Millis());
+
+        assertThat(aiCircuitBreaker.getState()).isIn(CircuitBreaker.State.OPEN, CircuitBreaker.State.HALF_OPEN);
+        assertThat(ai.errors()).isEqualTo(ai.requests());
+        assertThat(ai.p50Millis()).isLessThan(300);
+    }
+
+    private LoadGenerator.ScenarioResult run(String scenario, LoadGenerator.UserGroup... groups) throws InterruptedException {
+        LoadGenerator.ScenarioResult result = generator.run(scenario, LoadScenarios.WARMUP, LoadScenarios.DURATION, groups);
+        SCENARIOS.add(result);
+        return result;
+    }
+}
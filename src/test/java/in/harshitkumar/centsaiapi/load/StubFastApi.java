@@ -0,0 +1,107 @@
+package in.harshitkumar.centsaiapi.load;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for the FastAPI extraction service. Every request sleeps for a latency drawn from
+ * {@code minLatency} plus an exponentially distributed tail with mean {@code meanExtraLatency}, then fails
+ * with a 500 at {@code errorRate} or answers with one expense. All three can be changed while it runs.
+ */
+final class StubFastApi implements AutoCloseable {
+
+    private static final String[] CATEGORIES = {"food", "travel", "groceries", "rent", "entertainment"};
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong requests = new AtomicLong();
+
+    private volatile Duration minLatency = Duration.ZERO;
+    private volatile Duration meanExtraLatency = Duration.ZERO;
+    private volatile double errorRate;
+
+    StubFastApi() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/extract";
+    }
+
+    StubFastApi latency(Duration min, Duration meanExtra) {
+        this.minLatency = min;
+        this.meanExtraLatency = meanExtra;
+        return this;
+    }
+
+    StubFastApi errorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    long requests() {
+        return requests.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange; InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            sleep(random);
+
+            if (random.nextDouble() < errorRate) {
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+
+            String json = "[{\"amount\": %d.%02d, \"transactionDate\": \"%s\", \"category\": \"%s\"}]".formatted(
+                    random.nextInt(1, 2_000), random.nextInt(100),
+                    LocalDate.of(2025, 1, 1).plusDays(random.nextInt(365)),
+                    CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            byte[] response = json.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        }
+    }
+
+    private void sleep(ThreadLocalRandom random) {
+        long nanos = minLatency.toNanos();
+        long meanExtra = meanExtraLatency.toNanos();
+        if (meanExtra > 0) {
+            nanos += (long) (-Math.log(1 - random.nextDouble()) * meanExtra);
+        }
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(Duration.ofNanos(nanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,97 @@
+package in.harshitkumar.centsaiapi.load;
+
+import in.harshitkumar.centsaiapi.CentsaiapiApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static in.harshitkumar.centsaiapi.load.LoadScenarios.CRUD_ENDPOINTS;
+import static in.harshitkumar.centsaiapi.load.LoadScenarios.USERS;
+import static in.harshitkumar.centsaiapi.load.LoadScenarios.aiGroup;
+import static in.harshitkumar.centsaiapi.load.LoadScenarios.crudGroup;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The same slow-AI and fast-CRUD mix against the application started twice, once on platform threads and
+ * once with {@code spring.threads.virtual.enabled=true}. Both runs share one embedded Postgres and one
+ * {@link StubFastApi}; the scenario name keeps their users apart. The CRUD throughput and p99 of each mode
+ * are written to {@code ThreadModelLoadTest.json} for comparison; only sanity is asserted, since which mode
+ * wins depends on the machine.
+ */
+@Tag("load")
+class ThreadModelLoadTest {
+
+    private static final List<LoadGenerator.ScenarioResult> SCENARIOS = new ArrayList<>();
+    private static final Map<String, Object> COMPARISONS = new LinkedHashMap<>();
+
+    private static EmbeddedPostgres postgres;
+    private static StubFastApi fastApi;
+
+    @BeforeAll
+    static void start() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        fastApi = new StubFastApi().latency(Duration.ofSeconds(1), Duration.ofMillis(500));
+    }
+
+    @AfterAll
+    static void writeResults() throws IOException {
+        LoadScenarios.writeResults(ThreadModelLoadTest.class, COMPARISONS, SCENARIOS);
+        fastApi.close();
+        postgres.close();
+    }
+
+    @Test
+    void platformAndVirtualThreadsUnderSlowAi() throws InterruptedException {
+        LoadGenerator.ScenarioResult platform = run("platform", false);
+        LoadGenerator.ScenarioResult virtual = run("virtual", true);
+
+        COMPARISONS.put("crudThroughputPlatform", platform.throughput(CRUD_ENDPOINTS::contains));
+        COMPARISONS.put("crudThroughputVirtual", virtual.throughput(CRUD_ENDPOINTS::contains));
+        COMPARISONS.put("crudThroughputVirtualOverPlatform",
+                virtual.throughput(CRUD_ENDPOINTS::contains) / platform.throughput(CRUD_ENDPOINTS::contains));
+        COMPARISONS.put("transactionsP99MillisPlatform", platform.endpoint("GET /transactions").p99Millis());
+        COMPARISONS.put("transactionsP99MillisVirtual", virtual.endpoint("GET /transactions").p99Millis());
+
+        for (LoadGenerator.ScenarioResult result : List.of(platform, virtual)) {
+            assertThat(result.setup()).allSatisfy(endpoint -> assertThat(endpoint.errors()).isZero());
+            assertThat(result.endpoint("GET /transactions").requests()).isPositive();
+            assertThat(result.endpoint("POST /ai/transaction").requests()).isPositive();
+        }
+    }
+
+    private LoadGenerator.ScenarioResult run(String mode, boolean virtualThreads) throws InterruptedException {
+        String[] properties = Stream.concat(Stream.of(LoadScenarios.APPLICATION_PROPERTIES), Stream.of(
+                "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "spring.datasource.username=postgres",
+                "spring.datasource.password=postgres",
+                "fastapi.url=" + fastApi.url(),
+                "server.port=0",
+                "management.server.port=0",
+                "spring.threads.virtual.enabled=" + virtualThreads
+        )).toArray(String[]::new);
+
+        // As command-line arguments, which take precedence over application.properties; default properties do not
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CentsaiapiApplication.class)
+                .run(Stream.of(properties).map(property -> "--" + property).toArray(String[]::new))) {
+            String port = context.getEnvironment().getRequiredProperty("local.server.port");
+            LoadGenerator generator = new LoadGenerator(URI.create("http://127.0.0.1:" + port), LoadScenarios.JSON);
+            LoadGenerator.ScenarioResult result = generator.run(mode + "-slow-ai-and-crud",
+                    LoadScenarios.WARMUP, LoadScenarios.DURATION, crudGroup(USERS), aiGroup(USERS * 4));
+            SCENARIOS.add(result);
+            return result;
+        }
+    }
+}
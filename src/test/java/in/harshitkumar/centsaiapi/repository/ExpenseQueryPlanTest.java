@@ -0,0 +1,195 @@
+package in.harshitkumar.centsaiapi.repository;
+
+import in.harshitkumar.centsaiapi.dto.TransactionFilter;
+import in.harshitkumar.centsaiapi.dto.TransactionSort;
+import in.harshitkumar.centsaiapi.utils.TransactionCursor;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the filtered transaction listing against plan regressions: the SQL Hibernate generates for the
+ * common filter shapes is captured and explained (as a generic plan, since the captured statements are
+ * parameterized) against a Postgres seeded with enough rows that a missing index shows up as a
+ * sequential scan.
+ */
+@DataJpaTest(properties = {
+        "spring.application.name=centsaiapi-query-plan-test",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "in.harshitkumar.centsaiapi.repository.ExpenseQueryPlanTest$CapturingInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ExpenseQueryPlanTest {
+
+    private static final int USERS = 200;
+    private static final int EXPENSES = 200_000;
+    private static final int CATEGORIES = 6;
+    private static final long USER_ID = 42L;
+
+    private static EmbeddedPostgres postgres;
+    private static boolean seeded;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        jdbcTemplate.update("""
+                insert into users (id, user_name, email, password)
+                select g, 'user' || g, 'user' || g || '@example.com', 'x'
+                from generate_series(1, ?) g
+                """, USERS);
+        jdbcTemplate.update("""
+                insert into categories (id, name)
+                select g, 'Category ' || g
+                from generate_series(1, ?) g
+                """, CATEGORIES);
+        jdbcTemplate.update("""
+                insert into expenses (id, user_id, amount_minor, category_id, date)
+                select g,
+                       g % ? + 1,
+                       (g % 5000) * 10 + 100,
+                       g % ? + 1,
+                       date '2020-01-01' + (g % 2000)
+                from generate_series(1, ?) g
+                """, USERS, CATEGORIES, EXPENSES);
+        jdbcTemplate.execute("analyze users");
+        jdbcTemplate.execute("analyze categories");
+        jdbcTemplate.execute("analyze expenses");
+        seeded = true;
+    }
+
+    @Test
+    void unfilteredListingUsesIndex() {
+        assertIndexOnly(TransactionFilter.builder().build(), null);
+    }
+
+    @Test
+    void nextPageUsesIndex() {
+        assertIndexOnly(TransactionFilter.builder().build(),
+                new TransactionCursor(LocalDate.of(2022, 6, 1), 100_000L));
+    }
+
+    @Test
+    void dateRangeUsesIndex() {
+        assertIndexOnly(TransactionFilter.builder()
+                .from(LocalDate.of(2022, 1, 1))
+                .to(LocalDate.of(2022, 3, 31))
+                .build(), null);
+    }
+
+    @Test
+    void singleCategoryUsesIndex() {
+        assertIndexOnly(TransactionFilter.builder()
+                .categories(Set.of("Category 1"))
+                .build(), List.of(1), null);
+    }
+
+    @Test
+    void categorySetWithDateRangeUsesIndex() {
+        assertIndexOnly(TransactionFilter.builder()
+                .categories(Set.of("Category 1", "Category 2"))
+                .from(LocalDate.of(2021, 1, 1))
+                .to(LocalDate.of(2021, 12, 31))
+                .build(), List.of(1, 2), null);
+    }
+
+    @Test
+    void amountRangeSortedByAmountUsesIndex() {
+        assertIndexOnly(TransactionFilter.builder()
+                .minAmount(new BigDecimal("50.00"))
+                .maxAmount(new BigDecimal("150.00"))
+                .sort(TransactionSort.AMOUNT_DESC)
+                .build(), null);
+    }
+
+    @Test
+    void amountSortedNextPageUsesIndex() {
+        assertIndexOnly(TransactionFilter.builder()
+                .sort(TransactionSort.AMOUNT_ASC)
+                .build(), TransactionCursor.decode(new TransactionCursor(TransactionSort.AMOUNT_ASC, null, 12_050L, 5_000L).encode()));
+    }
+
+    private void assertIndexOnly(TransactionFilter filter, TransactionCursor after) {
+        assertIndexOnly(filter, null, after);
+    }
+
+    private void assertIndexOnly(TransactionFilter filter, List<Integer> categoryIds, TransactionCursor after) {
+        CapturingInspector.STATEMENTS.clear();
+        expenseRepository.findBy(ExpenseSpecifications.listing(USER_ID, filter, categoryIds, after),
+                query -> query.sortBy(filter.getSort().toSort()).limit(51).all());
+
+        String sql = CapturingInspector.STATEMENTS.getLast();
+        String plan = String.join("\n",
+                jdbcTemplate.queryForList("explain (generic_plan) " + numberParameters(sql), String.class));
+
+        assertThat(plan)
+                .as("plan for %s", sql)
+                .doesNotContain("Seq Scan")
+                .contains("Index");
+    }
+
+    // JDBC placeholders become $1..$n so Postgres can plan the statement without bound values.
+    private static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length() + 16);
+        int parameter = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
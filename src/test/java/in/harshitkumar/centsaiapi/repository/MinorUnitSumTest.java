@@ -0,0 +1,253 @@
+package in.harshitkumar.centsaiapi.repository;
+
+import in.harshitkumar.centsaiapi.dto.CategorySpending;
+import in.harshitkumar.centsaiapi.dto.PeriodSpending;
+import in.harshitkumar.centsaiapi.dto.RollupDelta;
+import in.harshitkumar.centsaiapi.models.MonthlyRollup;
+import in.harshitkumar.centsaiapi.utils.Money;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Money stays exact on its way through Postgres: the {@code SUM(amount_minor)} GROUP BY queries, the rollup
+ * rebuild, the {@code applyDelta} upserts and the V5 conversion of FLOAT(53) amounts are checked against a
+ * {@link BigDecimal} reference over millions of rows. Amounts go up to 100,000,000.00, so the totals pass
+ * 2^53 minor units, beyond which a float8 sum can no longer be exact.
+ */
+@DataJpaTest(properties = "spring.application.name=centsaiapi-minor-unit-sum-test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MinorUnitSumTest {
+
+    private static final int ROWS = 2_000_000;
+    private static final int DELTA_ROWS = 20_000;
+    private static final int LEGACY_ROWS = 100_000;
+    private static final int CATEGORIES = 6;
+    private static final long MAX_MINOR = 10_000_000_000L;
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final int DAYS = 731;
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private MonthlyRollupRepository rollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void groupedSumsAndRebuiltRollupsAreExact() {
+        long userId = 1L;
+        seedUsersAndCategories(userId);
+        // Generated in SQL for speed; amount(), date() and category() below repeat the same formulas
+        jdbcTemplate.update("""
+                insert into expenses (id, user_id, amount_minor, category_id, date)
+                select g,
+                       ?,
+                       g * 2654435761 % ? + 1,
+                       case when g % 10 = 0 then null else cast(g % ? + 1 as integer) end,
+                       date '2024-01-01' + cast(g * 7919 % ? as integer)
+                from generate_series(1, ?) g
+                """, userId, MAX_MINOR, CATEGORIES, DAYS, ROWS);
+
+        Reference expected = new Reference();
+        for (long g = 1; g <= ROWS; g++) {
+            expected.add(amount(g), date(g), category(g));
+        }
+
+        LocalDate to = START.plusDays(DAYS - 1);
+        Map<Integer, BigDecimal> byCategory = new HashMap<>();
+        for (CategorySpending spending : expenseRepository.sumByCategory(userId, START, to)) {
+            byCategory.put(spending.getCategoryId() == null ? MonthlyRollup.NO_CATEGORY : spending.getCategoryId(),
+                    spending.getTotal());
+        }
+        assertThat(byCategory).isEqualTo(expected.byCategory);
+
+        Map<Integer, BigDecimal> byMonth = new HashMap<>();
+        for (PeriodSpending spending : expenseRepository.sumByMonth(userId, START, to)) {
+            byMonth.put(yearMonth(spending.getPeriod()), spending.getTotal());
+        }
+        assertThat(byMonth).isEqualTo(expected.byMonth);
+
+        Map<String, BigDecimal> byBucket = new HashMap<>();
+        for (RollupDelta row : expenseRepository.sumByMonthAndCategory(userId)) {
+            byBucket.put(row.getYearMonth() + "/" + row.getCategoryId(), Money.fromMinorUnits(row.getTotal()));
+        }
+        assertThat(byBucket).isEqualTo(expected.byBucket);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> rollupRepository.rebuildForUser(userId));
+        assertThat(storedRollups(userId)).isEqualTo(expected.byBucket);
+    }
+
+    @Test
+    void incrementalDeltasMatchTheRebuild() {
+        long userId = 2L;
+        seedUsersAndCategories(userId);
+        SplittableRandom random = new SplittableRandom(17);
+        List<Row> rows = new ArrayList<>(DELTA_ROWS);
+        for (int i = 0; i < DELTA_ROWS; i++) {
+            rows.add(new Row(ROWS + i + 1L, random.nextLong(1, MAX_MINOR), START.plusDays(random.nextInt(DAYS)),
+                    random.nextInt(CATEGORIES + 1)));
+        }
+        // Every row is added, then every third one is removed again, as inserts and deletes would
+        List<Row> removed = new ArrayList<>();
+        List<Row> kept = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            (i % 3 == 0 ? removed : kept).add(rows.get(i));
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            for (Row row : rows) {
+                rollupRepository.applyDelta(userId, yearMonth(row.date()), row.category(), row.minor(), 1L);
+            }
+            for (Row row : removed) {
+                rollupRepository.applyDelta(userId, yearMonth(row.date()), row.category(), -row.minor(), -1L);
+                rollupRepository.deleteIfEmpty(userId, yearMonth(row.date()), row.category());
+            }
+        });
+        Reference expected = new Reference();
+        kept.forEach(row -> expected.add(row.minor(), row.date(), row.category()));
+        assertThat(storedRollups(userId)).isEqualTo(expected.byBucket);
+
+        jdbcTemplate.batchUpdate("insert into expenses (id, user_id, amount_minor, category_id, date) values (?, ?, ?, ?, ?)",
+                kept.stream().map(row -> new Object[]{row.id(), userId, row.minor(),
+                        row.category() == MonthlyRollup.NO_CATEGORY ? null : row.category(),
+                        Date.valueOf(row.date())}).toList());
+        transaction.executeWithoutResult(status -> {
+            rollupRepository.deleteAllByUserId(userId);
+            rollupRepository.rebuildForUser(userId);
+        });
+        assertThat(storedRollups(userId)).isEqualTo(expected.byBucket);
+    }
+
+    @Test
+    void floatAmountsConvertExactlyInV5() {
+        jdbcTemplate.execute("create database legacy");
+        DataSource legacy = postgres.getDatabase("postgres", "legacy");
+        Flyway.configure().dataSource(legacy).locations("classpath:db/migration").target("4").load().migrate();
+
+        // Before V5, amounts were FLOAT(53): whatever double the decimal amount parsed to
+        JdbcTemplate legacyJdbc = new JdbcTemplate(legacy);
+        legacyJdbc.update("insert into users (id, user_name, email, password) values (1, 'legacy', 'legacy@example.com', 'x')");
+        SplittableRandom random = new SplittableRandom(5);
+        Reference expected = new Reference();
+        List<Long> minorUnits = new ArrayList<>(LEGACY_ROWS);
+        List<Object[]> rows = new ArrayList<>(LEGACY_ROWS);
+        for (int i = 0; i < LEGACY_ROWS; i++) {
+            long minor = random.nextLong(1, MAX_MINOR);
+            LocalDate date = START.plusDays(random.nextInt(DAYS));
+            minorUnits.add(minor);
+            rows.add(new Object[]{Money.fromMinorUnits(minor).doubleValue(), Date.valueOf(date)});
+            expected.add(minor, date, MonthlyRollup.NO_CATEGORY);
+        }
+        legacyJdbc.batchUpdate("insert into expenses (user_id, amount, date) values (1, ?, ?)", rows);
+
+        Flyway.configure().dataSource(legacy).locations("classpath:db/migration").load().migrate();
+
+        assertThat(legacyJdbc.queryForList("select amount_minor from expenses order by id", Long.class))
+                .isEqualTo(minorUnits);
+        Map<String, BigDecimal> rollups = new HashMap<>();
+        legacyJdbc.query("select year_month, category_id, total_minor from monthly_rollups where user_id = 1",
+                (RowCallbackHandler) rs -> rollups.put(rs.getInt(1) + "/" + rs.getInt(2), Money.fromMinorUnits(rs.getLong(3))));
+        assertThat(rollups).isEqualTo(expected.byBucket);
+    }
+
+    private void seedUsersAndCategories(long userId) {
+        jdbcTemplate.update("insert into users (id, user_name, email, password) values (?, ?, ?, 'x')",
+                userId, "user" + userId, "user" + userId + "@example.com");
+        jdbcTemplate.update("""
+                insert into categories (id, name)
+                select g, 'Category ' || g
+                from generate_series(1, ?) g
+                on conflict do nothing
+                """, CATEGORIES);
+    }
+
+    private Map<String, BigDecimal> storedRollups(long userId) {
+        Map<String, BigDecimal> stored = new HashMap<>();
+        for (MonthlyRollup rollup : rollupRepository.findAllByUserId(userId)) {
+            stored.put(rollup.getId().getYearMonth() + "/" + rollup.getId().getCategoryId(),
+                    Money.fromMinorUnits(rollup.getTotal()));
+        }
+        return stored;
+    }
+
+    private static long amount(long g) {
+        return g * 2654435761L % MAX_MINOR + 1;
+    }
+
+    private static LocalDate date(long g) {
+        return START.plusDays(g * 7919 % DAYS);
+    }
+
+    private static int category(long g) {
+        return g % 10 == 0 ? MonthlyRollup.NO_CATEGORY : (int) (g % CATEGORIES + 1);
+    }
+
+    private static int yearMonth(LocalDate date) {
+        return date.getYear() * 100 + date.getMonthValue();
+    }
+
+    private record Row(long id, long minor, LocalDate date, int category) {
+    }
+
+    // BigDecimal totals per category, per month and per (month, category) rollup bucket
+    private static class Reference {
+        final Map<Integer, BigDecimal> byCategory = new HashMap<>();
+        final Map<Integer, BigDecimal> byMonth = new HashMap<>();
+        final Map<String, BigDecimal> byBucket = new HashMap<>();
+
+        void add(long minor, LocalDate date, int category) {
+            BigDecimal amount = BigDecimal.valueOf(minor, Money.SCALE);
+            byCategory.merge(category, amount, BigDecimal::add);
+            byMonth.merge(yearMonth(date), amount, BigDecimal::add);
+            byBucket.merge(yearMonth(date) + "/" + category, amount, BigDecimal::add);
+        }
+    }
+}
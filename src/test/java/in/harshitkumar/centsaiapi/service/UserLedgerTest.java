@@ -0,0 +1,220 @@
+package in.harshitkumar.centsaiapi.service;
+
+import in.harshitkumar.centsaiapi.dto.CategorySpending;
+import in.harshitkumar.centsaiapi.dto.PeriodSpending;
+import in.harshitkumar.centsaiapi.dto.TransactionFilter;
+import in.harshitkumar.centsaiapi.dto.TransactionSort;
+import in.harshitkumar.centsaiapi.utils.Money;
+import in.harshitkumar.centsaiapi.utils.TransactionCursor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks {@link UserLedger} against a brute-force reference that applies the listing's SQL semantics
+ * (NULL keys first when descending and last when ascending, id as tie-breaker) to a plain list of rows.
+ */
+class UserLedgerTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+
+    private final List<UserLedger.Row> rows = randomRows(new SplittableRandom(18), 2_000);
+    private final UserLedger ledger = build(rows);
+
+    @ParameterizedTest
+    @EnumSource(TransactionSort.class)
+    void pagesMatchSqlOrderAndFilters(TransactionSort sort) {
+        TransactionFilter unfiltered = TransactionFilter.builder().sort(sort).build();
+        assertThat(walk(unfiltered, null, 37)).containsExactlyElementsOf(expected(unfiltered, null));
+
+        TransactionFilter filtered = TransactionFilter.builder()
+                .from(START.plusDays(30))
+                .to(START.plusDays(200))
+                .minAmount(new BigDecimal("10.00"))
+                .maxAmount(new BigDecimal("400.50"))
+                .sort(sort)
+                .build();
+        List<Integer> categories = List.of(2, 3);
+        assertThat(walk(filtered, categories, 11)).containsExactlyElementsOf(expected(filtered, categories));
+
+        TransactionFilter openEnded = TransactionFilter.builder().from(START.plusDays(100)).sort(sort).build();
+        assertThat(walk(openEnded, null, 50)).containsExactlyElementsOf(expected(openEnded, null));
+    }
+
+    @Test
+    void unknownCategoriesMatchNothing() {
+        assertThat(ledger.page(TransactionFilter.builder().build(), List.of(), null, 10)).isEmpty();
+    }
+
+    @Test
+    void summariesMatchGroupBy() {
+        LocalDate from = START.plusDays(15);
+        LocalDate to = START.plusDays(250);
+        List<UserLedger.Row> inRange = rows.stream()
+                .filter(row -> row.date() != null && !row.date().isBefore(from) && !row.date().isAfter(to))
+                .toList();
+
+        List<PeriodSpending> days = ledger.sumByDay(from, to);
+        assertThat(days).extracting(PeriodSpending::getPeriod)
+                .containsExactlyElementsOf(inRange.stream().map(UserLedger.Row::date).distinct().sorted().toList());
+        for (PeriodSpending day : days) {
+            assertThat(day).isEqualTo(expectedPeriod(day.getPeriod(), inRange, UserLedger.Row::date));
+        }
+
+        List<PeriodSpending> months = ledger.sumByMonth(from, to);
+        for (PeriodSpending month : months) {
+            assertThat(month).isEqualTo(expectedPeriod(month.getPeriod(), inRange, row -> row.date().withDayOfMonth(1)));
+        }
+        assertThat(months.stream().mapToLong(PeriodSpending::getCount).sum()).isEqualTo(inRange.size());
+
+        List<CategorySpending> categories = ledger.sumByCategory(from, to);
+        assertThat(categories).extracting(CategorySpending::getTotal)
+                .isSortedAccordingTo(Comparator.nullsFirst(Comparator.<BigDecimal>reverseOrder()));
+        for (CategorySpending category : categories) {
+            List<UserLedger.Row> group = inRange.stream()
+                    .filter(row -> Objects.equals(row.categoryId(), category.getCategoryId()))
+                    .toList();
+            assertThat(category.getCount()).isEqualTo((long) group.size());
+            assertThat(category.getTotal()).isEqualTo(sum(group));
+        }
+    }
+
+    @Test
+    void writesProduceUpdatedCopies() {
+        UserLedger.Row first = rows.get(0);
+        UserLedger.Row changed = new UserLedger.Row(first.id(), START, 1L, 9);
+        UserLedger.Row added = new UserLedger.Row(10_000_000L, START.plusDays(1), 250L, null);
+
+        UserLedger updated = ledger.withRows(List.of(changed, added));
+        assertThat(updated.size()).isEqualTo(ledger.size() + 1);
+        assertThat(updated.withRows(List.of(added)).size()).isEqualTo(updated.size());
+        assertThat(ledger.size()).isEqualTo(rows.size());
+
+        TransactionFilter byAmount = TransactionFilter.builder().sort(TransactionSort.AMOUNT_ASC).build();
+        int cheapest = updated.page(byAmount, null, null, 1)[0];
+        assertThat(updated.id(cheapest)).isEqualTo(first.id());
+        assertThat(updated.categoryId(cheapest)).isEqualTo(9);
+
+        UserLedger removed = updated.withoutIds(List.of(first.id(), added.id()));
+        assertThat(removed.size()).isEqualTo(ledger.size() - 1);
+    }
+
+    @ParameterizedTest
+    @EnumSource(TransactionSort.class)
+    void mergedWritesMatchARebuild(TransactionSort sort) {
+        // New ids beyond the existing ones, then existing rows moved to other dates and amounts
+        List<UserLedger.Row> changed = new ArrayList<>(randomRows(new SplittableRandom(19), 50).stream()
+                .map(row -> new UserLedger.Row(row.id() + 10_000_000L, row.date(), row.amount(), row.categoryId()))
+                .toList());
+        for (int i = 0; i < 50; i++) {
+            UserLedger.Row row = rows.get(i * 7);
+            changed.add(new UserLedger.Row(row.id(), START.plusDays(i), (long) i * 100, row.categoryId()));
+        }
+        List<Long> removed = List.of(rows.get(1).id(), rows.get(500).id(), changed.get(3).id());
+
+        List<UserLedger.Row> expected = new ArrayList<>(rows);
+        expected.removeIf(row -> changed.stream().anyMatch(change -> change.id() == row.id()));
+        expected.addAll(changed);
+        expected.removeIf(row -> removed.contains(row.id()));
+
+        UserLedger merged = ledger.withRows(changed).withoutIds(removed);
+        UserLedger rebuilt = build(expected);
+        TransactionFilter all = TransactionFilter.builder().sort(sort).build();
+        int[] mergedPage = merged.page(all, null, null, expected.size() + 1);
+        int[] rebuiltPage = rebuilt.page(all, null, null, expected.size() + 1);
+        assertThat(mergedPage).hasSize(expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(merged.id(mergedPage[i])).isEqualTo(rebuilt.id(rebuiltPage[i]));
+            assertThat(merged.categoryId(mergedPage[i])).isEqualTo(rebuilt.categoryId(rebuiltPage[i]));
+        }
+    }
+
+    @Test
+    void reportsHeapPerRow() {
+        long overhead = build(List.of()).estimatedBytes();
+        assertThat(overhead).isLessThan(200);
+        assertThat(ledger.estimatedBytes() - overhead).isEqualTo((long) rows.size() * UserLedger.BYTES_PER_ROW);
+        assertThat(UserLedger.BYTES_PER_ROW).isEqualTo(28);
+    }
+
+    // Follows the cursors the ledger hands out until the last page.
+    private List<Long> walk(TransactionFilter filter, List<Integer> categories, int pageSize) {
+        List<Long> ids = new ArrayList<>();
+        TransactionCursor after = null;
+        while (true) {
+            int[] page = ledger.page(filter, categories, after, pageSize + 1);
+            for (int i = 0; i < Math.min(page.length, pageSize); i++) {
+                ids.add(ledger.id(page[i]));
+            }
+            if (page.length <= pageSize) {
+                return ids;
+            }
+            // Round trip through the encoded form, as a client would
+            after = TransactionCursor.decode(ledger.cursorAfter(page[pageSize - 1], filter.getSort()).encode());
+        }
+    }
+
+    private List<Long> expected(TransactionFilter filter, List<Integer> categories) {
+        Long min = Money.toMinorUnits(filter.getMinAmount());
+        Long max = Money.toMinorUnits(filter.getMaxAmount());
+        Predicate<UserLedger.Row> matches = row ->
+                (filter.getFrom() == null || (row.date() != null && !row.date().isBefore(filter.getFrom())))
+                        && (filter.getTo() == null || (row.date() != null && !row.date().isAfter(filter.getTo())))
+                        && (min == null || (row.amount() != null && row.amount() >= min))
+                        && (max == null || (row.amount() != null && row.amount() <= max))
+                        && (categories == null || (row.categoryId() != null && categories.contains(row.categoryId())));
+
+        TransactionSort sort = filter.getSort();
+        Comparator<UserLedger.Row> order = sort.isByAmount()
+                ? Comparator.comparing(UserLedger.Row::amount, Comparator.nullsLast(Comparator.<Long>naturalOrder()))
+                : Comparator.comparing(UserLedger.Row::date, Comparator.nullsLast(Comparator.<LocalDate>naturalOrder()));
+        order = order.thenComparingLong(UserLedger.Row::id);
+        if (sort.getDirection().isDescending()) {
+            order = order.reversed();
+        }
+        return rows.stream().filter(matches).sorted(order).map(UserLedger.Row::id).toList();
+    }
+
+    private static PeriodSpending expectedPeriod(LocalDate period, List<UserLedger.Row> rows,
+                                                 Function<UserLedger.Row, LocalDate> periodOf) {
+        List<UserLedger.Row> group = rows.stream().filter(row -> periodOf.apply(row).equals(period)).toList();
+        return new PeriodSpending(period, sum(group), (long) group.size());
+    }
+
+    private static BigDecimal sum(List<UserLedger.Row> rows) {
+        return rows.stream().map(UserLedger.Row::amount).filter(Objects::nonNull)
+                .reduce(Long::sum).map(Money::fromMinorUnits).orElse(null);
+    }
+
+    private static UserLedger build(List<UserLedger.Row> rows) {
+        UserLedger.Builder builder = UserLedger.builder(rows.size());
+        rows.forEach(row -> builder.add(row.id(), row.date(), row.amount(), row.categoryId()));
+        return builder.build();
+    }
+
+    // Few distinct dates and amounts, so ties on the sort key are common, plus some rows missing each value.
+    private static List<UserLedger.Row> randomRows(SplittableRandom random, int count) {
+        List<UserLedger.Row> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Unique, but not in date or amount order
+            long id = (i + 1) * 1_000L + random.nextInt(1_000);
+            LocalDate date = random.nextInt(20) == 0 ? null : START.plusDays(random.nextInt(365));
+            Long amount = random.nextInt(20) == 0 ? null : random.nextLong(1, 500) * 100 + random.nextInt(2) * 50;
+            Integer categoryId = random.nextInt(10) == 0 ? null : random.nextInt(1, 5);
+            rows.add(new UserLedger.Row(id, date, amount, categoryId));
+        }
+        return rows;
+    }
+}
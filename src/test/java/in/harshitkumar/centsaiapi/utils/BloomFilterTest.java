@@ -0,0 +1,57 @@
+package in.harshitkumar.centsaiapi.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link BloomFilter} never misses an id it was given, and at its expected size answers "maybe" for
+ * absent ids at close to the rate it was sized for.
+ */
+class BloomFilterTest {
+
+    private static final int ENTRIES = 100_000;
+    private static final int PROBES = 1_000_000;
+
+    @Test
+    void hasNoFalseNegativesAndTheExpectedFalsePositiveRate() {
+        Random random = new Random(25);
+        BloomFilter filter = BloomFilter.create(ENTRIES, 0.01);
+        List<UUID> added = new ArrayList<>(ENTRIES);
+        for (int i = 0; i < ENTRIES; i++) {
+            UUID id = new UUID(random.nextLong(), random.nextLong());
+            added.add(id);
+            filter.put(id);
+        }
+
+        assertThat(added).allMatch(filter::mightContain);
+
+        int falsePositives = 0;
+        for (int i = 0; i < PROBES; i++) {
+            if (filter.mightContain(new UUID(random.nextLong(), random.nextLong()))) {
+                falsePositives++;
+            }
+        }
+        assertThat((double) falsePositives / PROBES).isLessThan(0.015);
+        assertThat(filter.entries()).isEqualTo(ENTRIES);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = BloomFilter.create(10, 0.01);
+
+        assertThat(filter.mightContain(UUID.randomUUID())).isFalse();
+    }
+
+    @Test
+    void rejectsInvalidSizing() {
+        assertThatThrownBy(() -> BloomFilter.create(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BloomFilter.create(10, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
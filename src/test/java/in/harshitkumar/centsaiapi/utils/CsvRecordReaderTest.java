@@ -0,0 +1,55 @@
+package in.harshitkumar.centsaiapi.utils;
+
+import in.harshitkumar.centsaiapi.exception.InvalidRequestParameter;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link CsvRecordReader} rejects an over-long row or an unclosed quote for the line it starts on, and
+ * carries on with the next record.
+ */
+class CsvRecordReaderTest {
+
+    @Test
+    void readsQuotedFieldsAcrossLines() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,\"b,\"\"c\"\"\nd\"\r\ne,f\n"), 100);
+
+        assertThat(reader.next()).containsExactly("a", "b,\"c\"\nd");
+        assertThat(reader.getRecordLineNumber()).isEqualTo(1);
+        assertThat(reader.next()).containsExactly("e", "f");
+        assertThat(reader.getRecordLineNumber()).isEqualTo(3);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void skipsPastRowsLongerThanTheLimit() throws IOException {
+        String longRow = "2025-01-01,\"" + "x,\n".repeat(20) + "\"";
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,b\n" + longRow + "\nc,d\n"), 20);
+
+        assertThat(reader.next()).containsExactly("a", "b");
+        assertThatThrownBy(reader::next)
+                .isInstanceOf(InvalidRequestParameter.class)
+                .hasMessageContaining("20 characters");
+        assertThat(reader.getRecordLineNumber()).isEqualTo(2);
+        assertThat(reader.next()).isEqualTo(List.of("c", "d"));
+        assertThat(reader.getRecordLineNumber()).isEqualTo(23);
+    }
+
+    @Test
+    void rejectsAQuoteThatIsNeverClosed() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,b\nc,\"d\ne,f\n"), 100);
+
+        assertThat(reader.next()).containsExactly("a", "b");
+        assertThatThrownBy(reader::next)
+                .isInstanceOf(InvalidRequestParameter.class)
+                .hasMessageContaining("not closed");
+        assertThat(reader.getRecordLineNumber()).isEqualTo(2);
+        assertThat(reader.next()).isNull();
+    }
+}
@@ -0,0 +1,68 @@
+package in.harshitkumar.centsaiapi.utils;
+
+import in.harshitkumar.centsaiapi.exception.InvalidRequestParameter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Property checks for {@link Money}: random two-decimal amounts survive the decimal/minor-unit round
+ * trip unchanged. Exact sums through Postgres are covered by
+ * {@link in.harshitkumar.centsaiapi.repository.MinorUnitSumTest}.
+ */
+class MoneyTest {
+
+    private static final int ROWS = 2_000_000;
+
+    // Up to 10,000,000.00 either way
+    private static final long MAX_MINOR = 1_000_000_000L;
+
+    @ParameterizedTest
+    @ValueSource(longs = {7L, 99L})
+    void decimalRoundTripIsLossless(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < ROWS; i++) {
+            long minor = random.nextLong(-MAX_MINOR, MAX_MINOR);
+            BigDecimal decimal = Money.fromMinorUnits(minor);
+
+            assertThat(Money.toMinorUnits(decimal)).isEqualTo(minor);
+            assertThat(Money.parse(decimal.toPlainString())).isEqualTo(minor);
+        }
+    }
+
+    @Test
+    void acceptsEquivalentScales() {
+        assertThat(Money.toMinorUnits(new BigDecimal("49.9"))).isEqualTo(4990L);
+        assertThat(Money.toMinorUnits(new BigDecimal("49.990"))).isEqualTo(4999L);
+        assertThat(Money.toMinorUnits(new BigDecimal("1E+2"))).isEqualTo(10000L);
+        assertThat(Money.parse("1,234.50")).isEqualTo(123450L);
+    }
+
+    @Test
+    void rejectsSubMinorPrecision() {
+        assertThatThrownBy(() -> Money.toMinorUnits(new BigDecimal("0.001")))
+                .isInstanceOf(InvalidRequestParameter.class);
+        assertThatThrownBy(() -> Money.parse("abc"))
+                .isInstanceOf(InvalidRequestParameter.class);
+    }
+
+    @Test
+    void roundsExternalAmountsHalfEven() {
+        assertThat(Money.toMinorUnitsRounded(new BigDecimal("0.125"))).isEqualTo(12L);
+        assertThat(Money.toMinorUnitsRounded(new BigDecimal("0.135"))).isEqualTo(14L);
+    }
+
+    @Test
+    void overflowIsReportedNotWrapped() {
+        assertThatThrownBy(() -> Money.sum(new long[]{Long.MAX_VALUE, 1L}))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.toMinorUnits(new BigDecimal("1E+30")))
+                .isInstanceOf(InvalidRequestParameter.class);
+    }
+}